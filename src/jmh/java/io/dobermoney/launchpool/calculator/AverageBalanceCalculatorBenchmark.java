@@ -0,0 +1,83 @@
+package io.dobermoney.launchpool.calculator;
+
+import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceResult;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.Transaction;
+import io.dobermoney.launchpool.model.TransactionType;
+import io.dobermoney.launchpool.service.InMemoryCoinService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link AverageBalanceCalculator#calculate} over coins × period hours × transaction count
+ * with prices served from memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AverageBalanceCalculatorBenchmark {
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+
+    @Param({"1", "15"})
+    private int coins;
+
+    @Param({"24", "720"})
+    private int hours;
+
+    @Param({"10", "1000"})
+    private int transactions;
+
+    private AverageBalanceCalculator calculator;
+    private AverageBalanceCalculationRequest request;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        var to = FROM.plusHours(hours);
+        var coinList = new ArrayList<Coin>();
+        var prices = new HashMap<String, PriceSeries>();
+        for (var i = 0; i < coins; i++) {
+            var coin = Coin.builder().id("coin-" + i).name("Coin " + i).symbol("c" + i).build();
+            coinList.add(coin);
+            var builder = PriceSeries.builder(hours + 2);
+            for (var hour = -1; hour <= hours; hour++) {
+                builder.add(FROM.plusHours(hour).plusMinutes(5).toEpochSecond(), 1 + random.nextDouble() * 1000);
+            }
+            prices.put(coin.getId(), builder.build());
+        }
+
+        var transactionList = new ArrayList<Transaction>();
+        for (var i = 0; i < transactions; i++) {
+            transactionList.add(Transaction.builder()
+                    .dateTime(FROM.plusMinutes(random.nextInt(hours * 60)))
+                    .type(random.nextInt(4) == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT)
+                    .coin(coinList.get(random.nextInt(coins)))
+                    .amount(random.nextDouble() * 10)
+                    .build());
+        }
+
+        calculator = new AverageBalanceCalculator(new InMemoryCoinService(prices),
+                (rangeFrom, rangeTo, currency) -> PriceSeries.empty(), Runnable::run, new SimpleMeterRegistry());
+        request = AverageBalanceCalculationRequest.builder()
+                .from(FROM)
+                .to(to)
+                .transactions(transactionList)
+                .build();
+    }
+
+    @Benchmark
+    public AverageBalanceResult calculate() {
+        return calculator.calculate(request);
+    }
+}
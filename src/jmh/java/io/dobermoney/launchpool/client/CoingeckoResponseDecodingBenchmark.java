@@ -0,0 +1,56 @@
+package io.dobermoney.launchpool.client;
+
+import io.dobermoney.launchpool.client.response.CoingeckoHistoricalChartDataResponse;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JSON decoding of Coingecko market_chart/range responses of different lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoingeckoResponseDecodingBenchmark {
+    private static final long START_MILLIS = 1704067200000L;
+
+    /** 1 day of 5-minute samples and 90 days of hourly samples. */
+    @Param({"288", "2160"})
+    private int samples;
+
+    private JsonMapper jsonMapper;
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        var json = new StringBuilder("{");
+        for (var field : new String[]{"prices", "market_caps", "total_volumes"}) {
+            json.append('"').append(field).append("\":[");
+            for (var i = 0; i < samples; i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                json.append('[').append(START_MILLIS + i * 3_600_000L).append(',')
+                        .append(random.nextDouble() * 100_000).append(']');
+            }
+            json.append("],");
+        }
+        json.setLength(json.length() - 1);
+        json.append('}');
+
+        jsonMapper = JsonMapper.builder().build();
+        body = json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public CoingeckoHistoricalChartDataResponse decode() {
+        return jsonMapper.readValue(body, CoingeckoHistoricalChartDataResponse.class);
+    }
+}
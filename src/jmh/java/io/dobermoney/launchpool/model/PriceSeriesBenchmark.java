@@ -0,0 +1,64 @@
+package io.dobermoney.launchpool.model;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks hourly price lookups in {@link PriceSeries} of 5-minute samples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceSeriesBenchmark {
+    private static final long START = 1704067200L;
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final int LOOKUPS = 1024;
+
+    @Param({"288", "25920"})
+    private int samples;
+
+    private PriceSeries series;
+    private long[] hourStarts;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(42);
+        var builder = PriceSeries.builder(samples);
+        for (var i = 0; i < samples; i++) {
+            builder.add(START + i * 300L, random.nextDouble() * 1000);
+        }
+        series = builder.build();
+
+        var hours = samples * 300L / SECONDS_PER_HOUR;
+        hourStarts = new long[LOOKUPS];
+        for (var i = 0; i < LOOKUPS; i++) {
+            hourStarts[i] = START + random.nextLong(hours) * SECONDS_PER_HOUR;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public double findFirstPrice() {
+        var sum = 0D;
+        for (var hourStart : hourStarts) {
+            sum += series.findFirstPrice(hourStart, hourStart + SECONDS_PER_HOUR).orElse(0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public double firstIndexInRange() {
+        var sum = 0D;
+        for (var hourStart : hourStarts) {
+            var index = series.firstIndexInRange(hourStart, hourStart + SECONDS_PER_HOUR);
+            sum += index < 0 ? 0 : series.priceAt(index);
+        }
+        return sum;
+    }
+}
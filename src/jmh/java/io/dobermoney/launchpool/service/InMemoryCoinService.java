@@ -0,0 +1,34 @@
+package io.dobermoney.launchpool.service;
+
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.PriceSeries;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link CoinService} stub serving pre-built price series from memory, so benchmarks measure no I/O.
+ */
+public class InMemoryCoinService implements CoinService {
+    private final Map<String, PriceSeries> pricesByCoinId;
+
+    /**
+     * Creates the stub.
+     *
+     * @param pricesByCoinId price series keyed by coin id
+     */
+    public InMemoryCoinService(Map<String, PriceSeries> pricesByCoinId) {
+        this.pricesByCoinId = pricesByCoinId;
+    }
+
+    @Override
+    public Set<Coin> readCoins() {
+        return Set.of();
+    }
+
+    @Override
+    public PriceSeries readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin) {
+        return pricesByCoinId.get(coin.getId()).slice(from.toEpochSecond(), to.toEpochSecond());
+    }
+}
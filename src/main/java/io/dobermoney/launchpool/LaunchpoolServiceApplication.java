@@ -1,6 +1,12 @@
 package io.dobermoney.launchpool;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
+import io.dobermoney.launchpool.config.properties.CalculationProperties;
 import io.dobermoney.launchpool.config.properties.CoingeckoProperties;
+import io.dobermoney.launchpool.config.properties.PriceArchiveProperties;
+import io.dobermoney.launchpool.config.properties.PriceBackfillProperties;
+import io.dobermoney.launchpool.config.properties.PriceCacheProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -9,11 +15,19 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 /**
  * Main entry point for the Launchpool calculator application.
  * Provides crypto tools including average balance calculation for launchpool staking periods.
+ * Server push is enabled so that views can show the progress of background calculations.
  */
+@Push
 @SpringBootApplication
-@EnableConfigurationProperties(CoingeckoProperties.class)
+@EnableConfigurationProperties({
+        CoingeckoProperties.class,
+        PriceCacheProperties.class,
+        PriceBackfillProperties.class,
+        PriceArchiveProperties.class,
+        CalculationProperties.class
+})
 @EnableScheduling
-public class LaunchpoolServiceApplication {
+public class LaunchpoolServiceApplication implements AppShellConfigurator {
     public static void main(String[] args) {
         SpringApplication.run(LaunchpoolServiceApplication.class, args);
     }
@@ -0,0 +1,41 @@
+package io.dobermoney.launchpool.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bits, most significant first, directly from a byte buffer without copying it.
+ */
+class BitReader {
+    private final ByteBuffer buffer;
+    private long position;
+
+    BitReader(ByteBuffer buffer, int byteOffset) {
+        this.buffer = buffer;
+        this.position = (long) byteOffset << 3;
+    }
+
+    boolean readBit() {
+        var bit = (buffer.get((int) (position >>> 3)) >>> (7 - (position & 7))) & 1;
+        position++;
+        return bit != 0;
+    }
+
+    /**
+     * Reads {@code count} bits as an unsigned value.
+     */
+    long readBits(int count) {
+        var value = 0L;
+        for (var i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1 : 0);
+        }
+        return value;
+    }
+
+    /**
+     * Reads {@code count} bits as a two's complement value.
+     */
+    long readSignedBits(int count) {
+        var value = readBits(count);
+        return count == Long.SIZE ? value : (value << (Long.SIZE - count)) >> (Long.SIZE - count);
+    }
+}
@@ -0,0 +1,42 @@
+package io.dobermoney.launchpool.archive;
+
+import java.util.Arrays;
+
+/**
+ * Appends bits, most significant first, to a growable byte array.
+ */
+class BitWriter {
+    private byte[] bytes;
+    private long bitCount;
+
+    BitWriter(int expectedBytes) {
+        this.bytes = new byte[Math.max(expectedBytes, 16)];
+    }
+
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes the lowest {@code count} bits of the value.
+     */
+    void writeBits(long value, int count) {
+        for (var i = count - 1; i >= 0; i--) {
+            var byteIndex = (int) (bitCount >>> 3);
+            if (byteIndex == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            if (((value >>> i) & 1) != 0) {
+                bytes[byteIndex] |= (byte) (0x80 >>> (bitCount & 7));
+            }
+            bitCount++;
+        }
+    }
+
+    /**
+     * @return the written bits, padded with zeros to whole bytes
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, (int) ((bitCount + 7) >>> 3));
+    }
+}
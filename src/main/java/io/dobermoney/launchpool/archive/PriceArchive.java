@@ -0,0 +1,98 @@
+package io.dobermoney.launchpool.archive;
+
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.regex.Pattern;
+
+/**
+ * File-based archive of historical coin prices with one compressed file per coin and calendar month (UTC).
+ * <p>
+ * Files are written once, for months that are complete, and never modified. They are read through
+ * a read-only memory mapping and decoded in place by {@link PriceArchiveCodec}, so a lookup copies
+ * only the samples it returns.
+ */
+public class PriceArchive {
+    private static final String FILE_EXTENSION = ".lpa";
+    private static final Pattern COIN_ID = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]*");
+
+    private final Path directory;
+
+    /**
+     * Creates an archive stored under the given directory, which is created on the first write.
+     *
+     * @param directory root directory of the archive
+     */
+    public PriceArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Tells whether the month of the coin is archived.
+     *
+     * @param coinId coin identifier
+     * @param month  calendar month in UTC
+     * @return {@code true} if the month is archived
+     */
+    public boolean contains(String coinId, YearMonth month) {
+        return Files.exists(file(coinId, month));
+    }
+
+    /**
+     * Reads the archived samples of a coin's month within the range.
+     *
+     * @param coinId coin identifier
+     * @param month  calendar month in UTC
+     * @param range  range of the samples to read
+     * @return time-sorted samples, or an empty series if the month is not archived
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public PriceSeries read(String coinId, YearMonth month, TimeRange range) {
+        var file = file(coinId, month);
+        if (!Files.exists(file)) {
+            return PriceSeries.empty();
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return PriceArchiveCodec.decode(buffer, range);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read price archive " + file, e);
+        }
+    }
+
+    /**
+     * Archives the samples of a coin's complete month. The file is written to a temporary file
+     * and moved into place, so readers never see a partial file.
+     *
+     * @param coinId coin identifier
+     * @param month  calendar month in UTC
+     * @param series samples of the month
+     * @throws UncheckedIOException if the file cannot be written
+     */
+    public void write(String coinId, YearMonth month, PriceSeries series) {
+        var file = file(coinId, month);
+        try {
+            Files.createDirectories(file.getParent());
+            var temporary = Files.createTempFile(file.getParent(), month.toString(), ".tmp");
+            Files.write(temporary, PriceArchiveCodec.encode(series));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write price archive " + file, e);
+        }
+    }
+
+    private Path file(String coinId, YearMonth month) {
+        if (!COIN_ID.matcher(coinId).matches()) {
+            throw new IllegalArgumentException("Invalid coin id for price archive: " + coinId);
+        }
+        return directory.resolve(coinId).resolve(month + FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,166 @@
+package io.dobermoney.launchpool.archive;
+
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compressed columnar encoding of a price series, after the Gorilla time series format.
+ * <p>
+ * After a header with a magic number and the sample count, the first sample is stored verbatim.
+ * Every following timestamp is stored as the difference between its delta and the previous delta
+ * in a variable-width bucket, so regular hourly or 5-minute samples take one bit.
+ * Every following price is XOR-ed with the previous one and only the meaningful bits of the result are stored,
+ * reusing the previous bit window when it fits. Timestamps and prices are interleaved in one bit stream.
+ */
+final class PriceArchiveCodec {
+    static final int MAGIC = 0x4C504131; // "LPA1"
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private PriceArchiveCodec() {
+    }
+
+    /**
+     * Encodes the series.
+     *
+     * @param series the series to encode
+     * @return encoded bytes
+     */
+    static byte[] encode(PriceSeries series) {
+        var writer = new BitWriter(HEADER_BYTES + 16 + series.size() * 2);
+        writer.writeBits(MAGIC, Integer.SIZE);
+        writer.writeBits(series.size(), Integer.SIZE);
+        if (series.isEmpty()) {
+            return writer.toByteArray();
+        }
+
+        var previousTimestamp = series.timestampAt(0);
+        var previousBits = Double.doubleToRawLongBits(series.priceAt(0));
+        writer.writeBits(previousTimestamp, Long.SIZE);
+        writer.writeBits(previousBits, Long.SIZE);
+
+        var previousDelta = 0L;
+        var previousLeading = Integer.MAX_VALUE;
+        var previousTrailing = 0;
+        for (var i = 1; i < series.size(); i++) {
+            var delta = series.timestampAt(i) - previousTimestamp;
+            writeDeltaOfDelta(writer, delta - previousDelta);
+            previousTimestamp = series.timestampAt(i);
+            previousDelta = delta;
+
+            var bits = Double.doubleToRawLongBits(series.priceAt(i));
+            var xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                writer.writeBit(false);
+                continue;
+            }
+            writer.writeBit(true);
+            var leading = Long.numberOfLeadingZeros(xor);
+            var trailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= previousLeading && trailing >= previousTrailing) {
+                writer.writeBit(false);
+                writer.writeBits(xor >>> previousTrailing, Long.SIZE - previousLeading - previousTrailing);
+            } else {
+                var length = Long.SIZE - leading - trailing;
+                writer.writeBit(true);
+                writer.writeBits(leading, 6);
+                writer.writeBits(length - 1, 6);
+                writer.writeBits(xor >>> trailing, length);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes the samples within the range, reading the buffer in place and stopping after the range.
+     *
+     * @param buffer encoded bytes, e.g. a memory-mapped archive file
+     * @param range  range of the samples to keep
+     * @return the samples within the range
+     * @throws IllegalArgumentException if the buffer does not hold an encoded series
+     */
+    static PriceSeries decode(ByteBuffer buffer, TimeRange range) {
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a price archive");
+        }
+        var count = buffer.getInt(Integer.BYTES);
+        var builder = PriceSeries.builder(Math.min(count, 1024));
+        if (count == 0) {
+            return builder.build();
+        }
+
+        var reader = new BitReader(buffer, HEADER_BYTES);
+        var timestamp = reader.readBits(Long.SIZE);
+        var bits = reader.readBits(Long.SIZE);
+        var delta = 0L;
+        var leading = 0;
+        var trailing = 0;
+        for (var i = 0; i < count; i++) {
+            if (i > 0) {
+                delta += readDeltaOfDelta(reader);
+                timestamp += delta;
+                if (reader.readBit()) {
+                    if (reader.readBit()) {
+                        leading = (int) reader.readBits(6);
+                        trailing = Long.SIZE - leading - ((int) reader.readBits(6) + 1);
+                    }
+                    bits ^= reader.readBits(Long.SIZE - leading - trailing) << trailing;
+                }
+            }
+            if (timestamp > range.to()) {
+                break;
+            }
+            if (timestamp >= range.from()) {
+                builder.add(timestamp, Double.longBitsToDouble(bits));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes a delta of delta with Gorilla's buckets: '0' for zero, then 7, 9 and 12 bit values,
+     * and the full 64 bits for anything larger.
+     */
+    private static void writeDeltaOfDelta(BitWriter writer, long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            writer.writeBit(false);
+        } else if (fits(deltaOfDelta, 7)) {
+            writer.writeBits(0b10, 2);
+            writer.writeBits(deltaOfDelta, 7);
+        } else if (fits(deltaOfDelta, 9)) {
+            writer.writeBits(0b110, 3);
+            writer.writeBits(deltaOfDelta, 9);
+        } else if (fits(deltaOfDelta, 12)) {
+            writer.writeBits(0b1110, 4);
+            writer.writeBits(deltaOfDelta, 12);
+        } else {
+            writer.writeBits(0b1111, 4);
+            writer.writeBits(deltaOfDelta, Long.SIZE);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader reader) {
+        if (!reader.readBit()) {
+            return 0;
+        }
+        if (!reader.readBit()) {
+            return reader.readSignedBits(7);
+        }
+        if (!reader.readBit()) {
+            return reader.readSignedBits(9);
+        }
+        if (!reader.readBit()) {
+            return reader.readSignedBits(12);
+        }
+        return reader.readSignedBits(Long.SIZE);
+    }
+
+    private static boolean fits(long value, int bits) {
+        var limit = 1L << (bits - 1);
+        return value >= -limit && value < limit;
+    }
+}
@@ -0,0 +1,587 @@
+package io.dobermoney.launchpool.calculator;
+
+import io.dobermoney.launchpool.calculator.result.AverageBalanceBreakdown;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceResult;
+import io.dobermoney.launchpool.calculator.result.FilledHour;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.MissingPricePolicy;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.SamplingInterval;
+import io.dobermoney.launchpool.model.Transaction;
+import io.dobermoney.launchpool.model.TransactionType;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Stateful average balance calculation over a fixed launchpool period.
+ * <p>
+ * The session keeps, per coin, the time-sorted transactions, the price of every hour and the time-weighted balance
+ * of every hour. Balances are integrated as piecewise-constant functions between transactions aligned to the
+ * {@link SamplingInterval}, so finer intervals cost no more than hourly sampling. With hourly sampling
+ * a transaction counts for the whole hour it falls into; with finer intervals the first and last hours
+ * are weighted by the part of them inside the period. When a transaction is added, edited or removed, only the affected coin is re-swept,
+ * starting at the hour of the change, and prices are fetched only for coins the session has not seen yet.
+ * Transactions before the first hour or after the last hour of the period do not affect the balance.
+ * <p>
+ * Hours without a coin price are filled according to the {@link MissingPricePolicy}; filled hours in which
+ * a balance is held are reported with the result. Conversion rates are never filled.
+ * <p>
+ * Once a change touches at least {@code parallelThreshold} coin-hours, the affected coins are re-swept in parallel
+ * and the USD totals are summed over chunks of hours in parallel, both on the common fork/join pool.
+ * Every hour is still summed over the coins in the same order, so the result does not depend on the mode.
+ * <p>
+ * Sessions are not thread-safe. Adding transactions can be cancelled by interrupting the calling thread,
+ * which interrupts outstanding price fetches, stops parallel sweeps and leaves the session unusable.
+ */
+@Slf4j
+public class AverageBalanceCalculationSession {
+    private static final long SECONDS_PER_HOUR = Duration.ofHours(1).toSeconds();
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::dateTime);
+    /** Smallest number of hours summed by one fork/join task. */
+    private static final int MIN_CHUNK_HOURS = 1024;
+
+    @Getter
+    private final ZonedDateTime from;
+    @Getter
+    private final ZonedDateTime to;
+    @Getter
+    private final CalculationSettings settings;
+    private final ZonedDateTime rangeStart;
+    private final long startSecond;
+    private final long intervalSeconds;
+    private final long periodStartSecond;
+    private final long periodEndSecond;
+    /** Number of hours in the period. */
+    @Getter
+    private final int hours;
+    /** Fraction of every hour inside the period; 1 except possibly for the first and last hour. */
+    private final double[] hourWeights;
+    private final Supplier<PriceSeries> rateFetcher;
+    /** Units of the currency per USD in every hour, or {@code null} for USD and until the rates are first needed. */
+    private double[] hourlyRates;
+    private final Function<Set<Coin>, Map<Coin, PriceSeries>> priceFetcher;
+    private final CalculationProgressListener progressListener;
+    private final long parallelThreshold;
+    private final Map<Coin, CoinTrack> tracks = new LinkedHashMap<>();
+    private final Map<Transaction, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Creates an empty session.
+     *
+     * @param from              start of the launchpool period
+     * @param to                end of the launchpool period
+     * @param settings          sampling interval, currency and missing price policy of the session
+     * @param rateFetcher       loads the units of the currency per USD over the period when the session first
+     *                          needs them; not used for USD
+     * @param priceFetcher      loads the USD price series of coins new to the session
+     * @param progressListener  receives the progress of recalculating the hourly balances
+     * @param parallelThreshold number of coin-hours from which work is split across the fork/join pool
+     */
+    AverageBalanceCalculationSession(ZonedDateTime from, ZonedDateTime to, CalculationSettings settings,
+                                     Supplier<PriceSeries> rateFetcher,
+                                     Function<Set<Coin>, Map<Coin, PriceSeries>> priceFetcher,
+                                     CalculationProgressListener progressListener,
+                                     long parallelThreshold) {
+        this.from = from;
+        this.to = to;
+        this.settings = settings;
+        this.rangeStart = settings.samplingInterval() == SamplingInterval.HOUR ?
+                from.withMinute(0) : from.truncatedTo(ChronoUnit.HOURS);
+        this.startSecond = rangeStart.toEpochSecond();
+        this.intervalSeconds = settings.samplingInterval().getDuration().toSeconds();
+        this.periodStartSecond = align(from.toEpochSecond());
+        this.periodEndSecond = startSecond + Math.ceilDiv(to.toEpochSecond() - startSecond, intervalSeconds) * intervalSeconds;
+        this.hours = Math.toIntExact(Math.ceilDiv(periodEndSecond - startSecond, SECONDS_PER_HOUR));
+        this.hourWeights = new double[hours];
+        for (var hour = 0; hour < hours; hour++) {
+            var hourStart = startSecond + hour * SECONDS_PER_HOUR;
+            var windowStart = Math.max(hourStart, periodStartSecond);
+            var windowEnd = Math.min(hourStart + SECONDS_PER_HOUR, periodEndSecond);
+            hourWeights[hour] = (double) (windowEnd - windowStart) / SECONDS_PER_HOUR;
+        }
+        this.rateFetcher = rateFetcher;
+        this.priceFetcher = priceFetcher;
+        this.progressListener = progressListener;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Adds a transaction.
+     *
+     * @param transaction the transaction to add
+     */
+    public void add(Transaction transaction) {
+        addAll(List.of(transaction));
+    }
+
+    /**
+     * Adds several transactions, fetching prices of new coins concurrently and sweeping each affected coin once.
+     *
+     * @param transactions the transactions to add
+     * @throws java.util.concurrent.CancellationException if the calling thread is interrupted
+     */
+    public void addAll(Collection<Transaction> transactions) {
+        var newCoins = new LinkedHashSet<Coin>();
+        transactions.forEach(transaction -> {
+            if (!tracks.containsKey(transaction.getCoin())) {
+                newCoins.add(transaction.getCoin());
+            }
+        });
+        if (!newCoins.isEmpty()) {
+            var prices = priceFetcher.apply(newCoins);
+            newCoins.forEach(coin -> tracks.put(coin, new CoinTrack(prices.get(coin))));
+        }
+
+        var firstChangedHour = new LinkedHashMap<Coin, Integer>();
+        for (var transaction : transactions) {
+            var previous = entries.get(transaction);
+            if (previous != null) {
+                tracks.get(previous.coin()).entries.remove(previous);
+                firstChangedHour.merge(previous.coin(), hourOf(previous.effectiveSecond()), Math::min);
+            }
+            var entry = entryOf(transaction);
+            entries.put(transaction, entry);
+            tracks.get(entry.coin()).entries.add(entry);
+            firstChangedHour.merge(entry.coin(), hourOf(entry.effectiveSecond()), Math::min);
+        }
+        var changes = List.copyOf(firstChangedHour.entrySet());
+        var totalHours = changes.stream().mapToLong(change -> Math.max(0, hours - change.getValue())).sum();
+        var processedHours = new AtomicLong();
+        if (changes.size() > 1 && totalHours >= parallelThreshold) {
+            var cancelled = new AtomicBoolean();
+            invokeCancellably(new SweepTask(changes, 0, changes.size(), processedHours, totalHours, cancelled),
+                    cancelled);
+            return;
+        }
+        for (var change : changes) {
+            checkNotInterrupted();
+            sweep(change, processedHours, totalHours);
+        }
+    }
+
+    private void sweep(Map.Entry<Coin, Integer> change, AtomicLong processedHours, long totalHours) {
+        var track = tracks.get(change.getKey());
+        track.entries.sort(ENTRY_ORDER);
+        track.sweepFrom(change.getValue());
+        var processed = processedHours.addAndGet(Math.max(0, hours - change.getValue()));
+        progressListener.hoursProcessed(processed, totalHours);
+    }
+
+    /**
+     * Removes a previously added transaction.
+     *
+     * @param transaction the transaction to remove
+     */
+    public void remove(Transaction transaction) {
+        var entry = entries.remove(transaction);
+        if (entry == null) {
+            return;
+        }
+        var track = tracks.get(entry.coin());
+        track.entries.remove(entry);
+        track.sweepFrom(hourOf(entry.effectiveSecond()));
+    }
+
+    /**
+     * Re-reads a previously added transaction after it was edited in place.
+     *
+     * @param transaction the edited transaction
+     */
+    public void update(Transaction transaction) {
+        remove(transaction);
+        add(transaction);
+    }
+
+    /**
+     * Returns the time-weighted average balance over the period in the session's currency.
+     *
+     * @return the average balance
+     * @throws IllegalArgumentException if a coin has a non-zero balance in an hour without a price,
+     *                                  or the balance is non-zero in an hour without a conversion rate
+     */
+    public double average() {
+        checkPrices();
+        var hourlyUsdBalances = new double[hours];
+        var trackArray = tracks.values().toArray(CoinTrack[]::new);
+        if ((long) hours * trackArray.length >= parallelThreshold && hours > MIN_CHUNK_HOURS) {
+            var cancelled = new AtomicBoolean();
+            invokeCancellably(new UsdSumTask(trackArray, hourlyUsdBalances, 0, hours, cancelled), cancelled);
+        } else {
+            sumUsdBalances(trackArray, hourlyUsdBalances, 0, hours);
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("Hourly USD balances from {}: {}", rangeStart, Arrays.toString(hourlyUsdBalances));
+        }
+
+        var rates = hourlyRates();
+        if (rates != null) {
+            convert(hourlyUsdBalances, rates);
+        }
+        for (var hour = 0; hour < hours; hour++) {
+            hourlyUsdBalances[hour] *= hourWeights[hour];
+        }
+        var sum = Arrays.stream(hourlyUsdBalances).sum();
+
+        var totalWeight = (double) (periodEndSecond - periodStartSecond) / SECONDS_PER_HOUR;
+
+        return sum / totalWeight;
+    }
+
+    /**
+     * Returns the average balance, the filled hours it relies on, whether any coin prices are stale and,
+     * if requested, a snapshot of the per-hour, per-coin balances.
+     *
+     * @param includeBreakdown whether to copy the per-hour, per-coin balances into the result
+     * @return the calculation result
+     * @throws IllegalArgumentException if a coin has a non-zero balance in an hour without a price
+     */
+    public AverageBalanceResult result(boolean includeBreakdown) {
+        var result = AverageBalanceResult.builder()
+                .averageBalance(average())
+                .filledHours(filledHours())
+                .stalePrices(tracks.values().stream().anyMatch(track -> track.stale));
+        if (includeBreakdown) {
+            result.breakdown(breakdown());
+        }
+        return result.build();
+    }
+
+    /**
+     * Copies the per-hour balances of every coin, in the order the coins were added, and the hourly conversion rates.
+     */
+    private AverageBalanceBreakdown breakdown() {
+        var coins = new ArrayList<Coin>(tracks.size());
+        var balances = new double[tracks.size()][];
+        var usdBalances = new double[tracks.size()][];
+        for (var entry : tracks.entrySet()) {
+            balances[coins.size()] = entry.getValue().balances.clone();
+            usdBalances[coins.size()] = entry.getValue().usdBalances.clone();
+            coins.add(entry.getKey());
+        }
+        var rates = new double[hours];
+        if (hourlyRates() == null) {
+            Arrays.fill(rates, 1);
+        } else {
+            System.arraycopy(hourlyRates(), 0, rates, 0, hours);
+        }
+        return new AverageBalanceBreakdown(coins, rangeStart, balances, usdBalances, settings.currency(), rates);
+    }
+
+    /**
+     * Lists the hours, per coin in the order the coins were added, whose price was filled and in which
+     * the coin's balance is non-zero.
+     */
+    private List<FilledHour> filledHours() {
+        var filledHours = new ArrayList<FilledHour>();
+        for (var entry : tracks.entrySet()) {
+            var track = entry.getValue();
+            for (var hour = track.filledHours.nextSetBit(0); hour >= 0; hour = track.filledHours.nextSetBit(hour + 1)) {
+                if (track.balances[hour] != 0) {
+                    filledHours.add(new FilledHour(entry.getKey(), rangeStart.plusHours(hour)));
+                }
+            }
+        }
+        return filledHours;
+    }
+
+    /**
+     * Returns the hourly conversion rates, fetching them on first use so that opening a session does not block,
+     * or {@code null} for USD.
+     */
+    private double[] hourlyRates() {
+        if (hourlyRates == null && settings.currency() != Currency.USD) {
+            hourlyRates = hourlyValues(rateFetcher.get(), MissingPricePolicy.FAIL, null);
+        }
+        return hourlyRates;
+    }
+
+    /**
+     * Converts hourly USD totals into the session's currency in place.
+     */
+    private void convert(double[] hourlyTotals, double[] hourlyRates) {
+        for (var hour = 0; hour < hours; hour++) {
+            if (hourlyTotals[hour] == 0) {
+                continue;
+            }
+            if (Double.isNaN(hourlyRates[hour])) {
+                throw new IllegalArgumentException("Unable to find USD to " + settings.currency() + " rate for date range "
+                        + rangeStart.plusHours(hour) + " - " + rangeStart.plusHours(hour + 1));
+            }
+            hourlyTotals[hour] *= hourlyRates[hour];
+        }
+    }
+
+    /**
+     * Returns the first value of the series in every hour. Hours without a sample are filled by the policy
+     * from the samples around the start of the hour, in the same pass, and marked in {@code filled} if given;
+     * hours the policy cannot fill are NaN.
+     */
+    private double[] hourlyValues(PriceSeries series, MissingPricePolicy policy, BitSet filled) {
+        var values = new double[hours];
+        var cursor = series.ceilingIndex(startSecond);
+        for (var hour = 0; hour < hours; hour++) {
+            var hourStart = startSecond + hour * SECONDS_PER_HOUR;
+            while (cursor < series.size() && series.timestampAt(cursor) < hourStart) {
+                cursor++;
+            }
+            if (cursor < series.size() && series.timestampAt(cursor) < hourStart + SECONDS_PER_HOUR) {
+                values[hour] = series.priceAt(cursor);
+                continue;
+            }
+            values[hour] = policy.fill(series, cursor, hourStart);
+            if (filled != null && !Double.isNaN(values[hour])) {
+                filled.set(hour);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Adds the USD balances of all coins, in coin order, into the totals of hours {@code [fromHour, toHour)}.
+     */
+    private static void sumUsdBalances(CoinTrack[] trackArray, double[] totals, int fromHour, int toHour) {
+        for (var track : trackArray) {
+            for (var hour = fromHour; hour < toHour; hour++) {
+                totals[hour] += track.usdBalances[hour];
+            }
+        }
+    }
+
+    private static void checkNotInterrupted() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Calculation cancelled");
+        }
+    }
+
+    /**
+     * Runs the task on the common fork/join pool and waits for it. If the waiting thread is interrupted, the task's
+     * subtasks see the cancelled flag before their next coin or chunk and stop; once they have, the calculation
+     * is cancelled.
+     */
+    private static void invokeCancellably(ForkJoinTask<?> task, AtomicBoolean cancelled) {
+        checkNotInterrupted();
+        ForkJoinPool.commonPool().execute(task);
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            task.quietlyJoin();
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Calculation cancelled");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void checkPrices() {
+        for (var track : tracks.values()) {
+            if (track.firstMissingPriceHour >= 0) {
+                throw new IllegalArgumentException("Unable to find coin price for date range "
+                        + rangeStart.plusHours(track.firstMissingPriceHour)
+                        + " - " + rangeStart.plusHours(track.firstMissingPriceHour + 1));
+            }
+        }
+    }
+
+    /**
+     * Returns the hour index containing the timestamp, clamped to {@code [0, hours]}.
+     */
+    private int hourOf(long epochSecond) {
+        if (epochSecond < startSecond) {
+            return 0;
+        }
+        return (int) Math.min(hours, (epochSecond - startSecond) / SECONDS_PER_HOUR);
+    }
+
+    /**
+     * Returns the start of the sampling interval containing the timestamp; intervals are aligned to the first hour.
+     */
+    private long align(long epochSecond) {
+        return startSecond + Math.floorDiv(epochSecond - startSecond, intervalSeconds) * intervalSeconds;
+    }
+
+    /**
+     * Re-sweeps a range of changed coins, splitting it in halves down to single coins.
+     */
+    private class SweepTask extends RecursiveAction {
+        private final List<Map.Entry<Coin, Integer>> changes;
+        private final int fromIndex;
+        private final int toIndex;
+        private final AtomicLong processedHours;
+        private final long totalHours;
+        private final AtomicBoolean cancelled;
+
+        SweepTask(List<Map.Entry<Coin, Integer>> changes, int fromIndex, int toIndex,
+                  AtomicLong processedHours, long totalHours, AtomicBoolean cancelled) {
+            this.changes = changes;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.processedHours = processedHours;
+            this.totalHours = totalHours;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.get()) {
+                return;
+            }
+            if (toIndex - fromIndex == 1) {
+                sweep(changes.get(fromIndex), processedHours, totalHours);
+                return;
+            }
+            var middle = (fromIndex + toIndex) >>> 1;
+            invokeAll(new SweepTask(changes, fromIndex, middle, processedHours, totalHours, cancelled),
+                    new SweepTask(changes, middle, toIndex, processedHours, totalHours, cancelled));
+        }
+    }
+
+    /**
+     * Sums the USD balances of all coins over a range of hours, splitting it in halves down to
+     * {@link #MIN_CHUNK_HOURS}.
+     */
+    private static class UsdSumTask extends RecursiveAction {
+        private final CoinTrack[] trackArray;
+        private final double[] totals;
+        private final int fromHour;
+        private final int toHour;
+        private final AtomicBoolean cancelled;
+
+        UsdSumTask(CoinTrack[] trackArray, double[] totals, int fromHour, int toHour, AtomicBoolean cancelled) {
+            this.trackArray = trackArray;
+            this.totals = totals;
+            this.fromHour = fromHour;
+            this.toHour = toHour;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (cancelled.get()) {
+                return;
+            }
+            if (toHour - fromHour <= MIN_CHUNK_HOURS) {
+                sumUsdBalances(trackArray, totals, fromHour, toHour);
+                return;
+            }
+            var middle = (fromHour + toHour) >>> 1;
+            invokeAll(new UsdSumTask(trackArray, totals, fromHour, middle, cancelled),
+                    new UsdSumTask(trackArray, totals, middle, toHour, cancelled));
+        }
+    }
+
+    private Entry entryOf(Transaction transaction) {
+        var amount = transaction.getType() == TransactionType.DEPOSIT ?
+                transaction.getAmount() : -transaction.getAmount();
+        return new Entry(transaction.getCoin(), transaction.getDateTime(),
+                align(transaction.getDateTime().toEpochSecond()), amount);
+    }
+
+    /**
+     * Snapshot of a transaction as it was added, so that in-place edits can be undone.
+     * The effective second is the start of the sampling interval the transaction falls into.
+     */
+    private record Entry(Coin coin, ZonedDateTime dateTime, long effectiveSecond, double signedAmount) {
+    }
+
+    /**
+     * Per-coin state: transactions sorted by time and hourly prices, balances and USD values.
+     * Hours whose price was filled by the missing price policy are marked in {@code filledHours}.
+     * Prices served from storage while Coingecko was unavailable are {@code stale}.
+     */
+    private class CoinTrack {
+        private final List<Entry> entries = new ArrayList<>();
+        private final double[] hourlyPrices;
+        private final double[] balances = new double[hours];
+        private final double[] closingBalances = new double[hours];
+        private final double[] usdBalances = new double[hours];
+        private final BitSet filledHours = new BitSet(hours);
+        private final boolean stale;
+        private int firstMissingPriceHour = -1;
+
+        CoinTrack(PriceSeries prices) {
+            this.hourlyPrices = hourlyValues(prices, settings.missingPricePolicy(), filledHours);
+            this.stale = prices.isStale();
+        }
+
+        /**
+         * Recomputes balances and USD values from the given hour to the end of the period.
+         * The balance of an hour is the integral of the step function of the entries over the part of the hour
+         * inside the period, divided by its length; without entries inside that part it is the closing balance.
+         */
+        void sweepFrom(int fromHour) {
+            if (fromHour >= hours) {
+                return;
+            }
+            if (firstMissingPriceHour >= fromHour) {
+                firstMissingPriceHour = -1;
+            }
+
+            var balance = fromHour == 0 ? 0D : closingBalances[fromHour - 1];
+            var entryCursor = firstEntryAtOrAfter(startSecond + fromHour * SECONDS_PER_HOUR);
+
+            for (var hour = fromHour; hour < hours; hour++) {
+                var hourStart = startSecond + hour * SECONDS_PER_HOUR;
+                var hourEnd = hourStart + SECONDS_PER_HOUR;
+                var windowStart = Math.max(hourStart, periodStartSecond);
+                var windowEnd = Math.min(hourEnd, periodEndSecond);
+                // Amount × time it was not held within the window, subtracted from the closing balance
+                var missedAmountSeconds = 0D;
+                while (entryCursor < entries.size() && entries.get(entryCursor).effectiveSecond() < hourEnd) {
+                    var entry = entries.get(entryCursor);
+                    if (entry.effectiveSecond() < windowEnd) {
+                        balance += entry.signedAmount();
+                        missedAmountSeconds += entry.signedAmount() * (Math.max(entry.effectiveSecond(), windowStart) - windowStart);
+                    }
+                    entryCursor++;
+                }
+                closingBalances[hour] = balance;
+                balances[hour] = missedAmountSeconds == 0 ? balance : balance - missedAmountSeconds / (windowEnd - windowStart);
+                if (balances[hour] == 0) {
+                    usdBalances[hour] = 0;
+                } else {
+                    if (Double.isNaN(hourlyPrices[hour]) && firstMissingPriceHour < 0) {
+                        firstMissingPriceHour = hour;
+                    }
+                    usdBalances[hour] = balances[hour] * hourlyPrices[hour];
+                }
+            }
+        }
+
+        private int firstEntryAtOrAfter(long epochSecond) {
+            var low = 0;
+            var high = entries.size();
+            while (low < high) {
+                var middle = (low + high) >>> 1;
+                if (entries.get(middle).effectiveSecond() < epochSecond) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,118 +1,386 @@
 package io.dobermoney.launchpool.calculator;
 
 import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
-import io.dobermoney.launchpool.model.*;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceBatchResult;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceResult;
+import io.dobermoney.launchpool.model.Coin;
 import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.PriceSeries;
 import io.dobermoney.launchpool.service.CoinService;
-import lombok.RequiredArgsConstructor;
+import io.dobermoney.launchpool.service.ExchangeRateService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
 import java.time.ZonedDateTime;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static io.dobermoney.launchpool.config.CalculationConfig.PRICE_FETCH_EXECUTOR_BEAN;
 
 /**
- * Calculates the time-weighted average balance in USD for a launchpool period
- * based on transactions and historical coin prices.
+ * Calculates the time-weighted average balance for a launchpool period in the {@link Currency} selected by the
+ * request, based on transactions, historical coin prices in USD and hourly USD conversion rates. The per-hour
+ * breakdown carries the rate applied to every hour.
+ * <p>
+ * Transactions are sorted once per coin and the hourly grid is swept with cursors over them and over
+ * the coin's {@link PriceSeries}, so the cost is O(T log T + H × C) for T transactions, H hours and C coins.
+ * The price series of all coins are fetched concurrently. Sessions spanning at least {@value #PARALLEL_THRESHOLD}
+ * coin-hours evaluate coins and chunks of hours on the fork/join pool; smaller ones stay sequential.
+ * <p>
+ * Publishes {@code calculation.duration} (tagged by outcome), {@code calculation.hours} and
+ * {@code calculation.price.fetch} metrics with percentile histograms. Hourly balances are logged
+ * by {@link AverageBalanceCalculationSession} only when its logger is set to TRACE.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class AverageBalanceCalculator {
+    static final String DURATION_METRIC = "calculation.duration";
+    static final String HOURS_METRIC = "calculation.hours";
+    static final String PRICE_FETCH_METRIC = "calculation.price.fetch";
+    /** Coin-hours from which a session splits its work across the fork/join pool. */
+    static final long PARALLEL_THRESHOLD = 65_536;
+
     private final CoinService coinService;
+    private final ExchangeRateService exchangeRateService;
+    private final Executor priceFetchExecutor;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+    private final DistributionSummary hoursSummary;
+    private final Timer priceFetchTimer;
+    private final long parallelThreshold;
+
+    /**
+     * Creates the calculator.
+     *
+     * @param coinService         service providing coin prices in USD
+     * @param exchangeRateService service providing rates from USD to other currencies
+     * @param priceFetchExecutor  executor fetching the price series of several coins concurrently
+     * @param meterRegistry       registry of the calculation metrics
+     */
+    @Autowired
+    public AverageBalanceCalculator(CoinService coinService,
+                                    ExchangeRateService exchangeRateService,
+                                    @Qualifier(PRICE_FETCH_EXECUTOR_BEAN) Executor priceFetchExecutor,
+                                    MeterRegistry meterRegistry) {
+        this(coinService, exchangeRateService, priceFetchExecutor, meterRegistry, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Creates the calculator with a custom parallelism threshold.
+     *
+     * @param coinService         service providing coin prices in USD
+     * @param exchangeRateService service providing rates from USD to other currencies
+     * @param priceFetchExecutor  executor fetching the price series of several coins concurrently
+     * @param meterRegistry       registry of the calculation metrics
+     * @param parallelThreshold   coin-hours from which a session splits its work across the fork/join pool
+     */
+    AverageBalanceCalculator(CoinService coinService, ExchangeRateService exchangeRateService,
+                             Executor priceFetchExecutor, MeterRegistry meterRegistry, long parallelThreshold) {
+        this.coinService = coinService;
+        this.exchangeRateService = exchangeRateService;
+        this.parallelThreshold = parallelThreshold;
+        this.priceFetchExecutor = priceFetchExecutor;
+        this.successTimer = durationTimer(meterRegistry, "success");
+        this.failureTimer = durationTimer(meterRegistry, "failure");
+        this.hoursSummary = DistributionSummary.builder(HOURS_METRIC)
+                .description("Hours in the period of a calculation")
+                .baseUnit("hours")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.priceFetchTimer = Timer.builder(PRICE_FETCH_METRIC)
+                .description("Time to read the price series of one coin for a calculation")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     /**
      * Calculates the average balance in the requested currency for the given period.
      *
      * @param request the calculation request with transactions and time range
-     * @return the time-weighted average balance
+     * @return the time-weighted average balance, with the per-hour breakdown if the request asks for it
+     * @throws IllegalArgumentException if the period is invalid (from after to, or null)
+     */
+    public AverageBalanceResult calculate(AverageBalanceCalculationRequest request) {
+        return timed(() -> {
+            var session = openSession(request.getFrom(), request.getTo(), CalculationSettings.of(request),
+                    CalculationProgressListener.NONE);
+            session.addAll(request.getTransactions());
+            return session.result(request.isIncludeBreakdown());
+        });
+    }
+
+    /**
+     * Opens an empty calculation session for the given period with the {@link CalculationSettings#DEFAULT default
+     * settings}. Transactions added to the session
+     * are recalculated incrementally, which suits interactive editing.
+     *
+     * @param from start of the launchpool period
+     * @param to   end of the launchpool period
+     * @return a new session
      * @throws IllegalArgumentException if the period is invalid (from after to, or null)
      */
-    public double calculate(AverageBalanceCalculationRequest request) {
-        var from = request.getFrom();
-        var to = request.getTo();
-        if (from == null || to == null || from.isAfter(to)) {
+    public AverageBalanceCalculationSession openSession(ZonedDateTime from, ZonedDateTime to) {
+        return openSession(from, to, CalculationSettings.DEFAULT, CalculationProgressListener.NONE);
+    }
+
+    /**
+     * Opens an empty calculation session for the given period that reports the progress of fetching prices
+     * and recalculating hourly balances whenever transactions are added.
+     *
+     * @param from             start of the launchpool period
+     * @param to               end of the launchpool period
+     * @param settings         sampling interval, currency and missing price policy; conversion rates of the
+     *                         currency are read when the session first computes a result, on the calling thread
+     * @param progressListener receives the progress of the session
+     * @return a new session
+     * @throws IllegalArgumentException if the period is invalid (from after to, or null)
+     */
+    public AverageBalanceCalculationSession openSession(ZonedDateTime from, ZonedDateTime to,
+                                                        CalculationSettings settings,
+                                                        CalculationProgressListener progressListener) {
+        return openSession(from, to, settings,
+                () -> exchangeRateService.readRates(from.minusHours(1), to.plusHours(1), settings.currency()),
+                coins -> fetchCoinPrices(coins, from, to, progressListener), progressListener);
+    }
+
+    private AverageBalanceCalculationSession openSession(ZonedDateTime from, ZonedDateTime to,
+                                                         CalculationSettings settings,
+                                                         Supplier<PriceSeries> rateFetcher,
+                                                         Function<Set<Coin>, Map<Coin, PriceSeries>> priceFetcher,
+                                                         CalculationProgressListener progressListener) {
+        checkPeriod(from, to);
+        var session = new AverageBalanceCalculationSession(from, to, settings, rateFetcher,
+                priceFetcher, progressListener, parallelThreshold);
+        hoursSummary.record(session.getHours());
+        return session;
+    }
+
+    private static void checkPeriod(ZonedDateTime from, ZonedDateTime to) {
+        if (!isValidPeriod(from, to)) {
             throw new IllegalArgumentException("Invalid period is provided");
         }
+    }
+
+    private static boolean isValidPeriod(ZonedDateTime from, ZonedDateTime to) {
+        return from != null && to != null && !from.isAfter(to);
+    }
 
-        var coins = request.getTransactions()
-                .stream()
-                .map(Transaction::getCoin)
-                .collect(Collectors.toSet());
-
-        Map<Coin, Set<CoinPrice>> coinPriceMap = coins.stream()
-                .collect(Collectors.toMap(Function.identity(), coin -> fetchCoinPrices(coin, from, to)));
-
-        var hourlyBalances = new ArrayList<Map<String, Double>>();
-        var previousBalance = new HashMap<String, Double>();
-
-        var rangeStart = from.withMinute(0);
-        var rangeEnd = rangeStart.plusHours(1);
-
-        while (rangeStart.isBefore(to)) {
-            var hourlyBalance = new HashMap<String, Double>();
-            hourlyBalance.put(Currency.USD.getCode(), 0D);
-            for (var coin : coins) {
-                hourlyBalance.put(coin.getId(), previousBalance.getOrDefault(coin.getId(), 0D));
-                final var localRangeStart = rangeStart;
-                final var localRangeEnd = rangeEnd;
-                request.getTransactions()
-                        .stream()
-                        .filter(transaction -> transaction.getCoin().equals(coin))
-                        .filter(transaction -> isInRange(localRangeStart, localRangeEnd, transaction))
-                        .sorted(Comparator.comparing(Transaction::getDateTime))
-                        .forEachOrdered(transaction -> {
-                            var balance = calculateHourlyBalance(transaction, hourlyBalance.get(coin.getId()));
-                            hourlyBalance.put(coin.getId(), balance);
-                        });
-                var coinPrices = coinPriceMap.get(coin);
-                var coinHourlyBalance = hourlyBalance.get(coin.getId());
-                var usdHourlyBalanceChange = coinHourlyBalance == 0 ?
-                        0 : coinHourlyBalance * findCoinPriceAtRange(rangeStart, rangeEnd, coinPrices);
-                hourlyBalance.compute(Currency.USD.getCode(), (key, value) -> value + usdHourlyBalanceChange);
-                System.out.println(hourlyBalance.get(Currency.USD.getCode()) + " , start = " + rangeStart + ", end = " + rangeEnd);
+    /**
+     * Merges overlapping or adjacent periods, so that a series is fetched once over periods that share hours
+     * but not over the gaps between disjoint ones.
+     */
+    private static List<Period> merge(Set<Period> periods) {
+        var merged = new ArrayList<Period>();
+        for (var period : periods.stream().sorted(Comparator.comparing(Period::from)).toList()) {
+            var last = merged.isEmpty() ? null : merged.getLast();
+            if (last != null && !period.from().isAfter(last.to())) {
+                var to = period.to().isAfter(last.to()) ? period.to() : last.to();
+                merged.set(merged.size() - 1, new Period(last.from(), to));
+            } else {
+                merged.add(period);
             }
-            hourlyBalances.add(hourlyBalance);
-            previousBalance = hourlyBalance;
-            rangeStart = rangeEnd;
-            rangeEnd = rangeStart.plusHours(1);
         }
+        return merged;
+    }
 
-        System.out.println(hourlyBalances);
+    /**
+     * Returns the fetch of the merged period covering the period.
+     */
+    private static <T> CompletableFuture<T> covering(Map<Period, CompletableFuture<T>> fetches, Period period) {
+        return fetches.entrySet().stream()
+                .filter(fetch -> fetch.getKey().contains(period))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow();
+    }
 
-        var sum = hourlyBalances.stream()
-                .mapToDouble(balance -> balance.get(Currency.USD.getCode()))
-                .sum();
+    /**
+     * Calculates the average balances of many requests. The prices of each coin are fetched concurrently over the
+     * periods of the requests that hold it, with overlapping or adjacent periods merged into a single fetch, so
+     * portfolios sharing coins and periods share price series while the hours between disjoint periods are not
+     * fetched. The conversion rates of every currency other than USD are fetched the same way over the periods of
+     * the requests in that currency. Results are produced lazily in request order, each as soon as its coins are
+     * loaded; a request that fails yields a failed result without affecting the others.
+     * Requests must use the same {@link Coin} instance for the same coin to share its price series.
+     * A coin with gaps in its prices fails only the requests whose missing price policy cannot fill them.
+     *
+     * @param requests the calculation requests
+     * @return lazily computed results, one per request in request order
+     */
+    public Stream<AverageBalanceBatchResult> calculateAll(List<AverageBalanceCalculationRequest> requests) {
+        var periods = new LinkedHashMap<Coin, Set<Period>>();
+        var ratePeriods = new EnumMap<Currency, Set<Period>>(Currency.class);
+        for (var request : requests) {
+            if (!isValidPeriod(request.getFrom(), request.getTo())) {
+                continue;
+            }
+            var period = new Period(request.getFrom(), request.getTo());
+            request.getTransactions().forEach(transaction ->
+                    periods.computeIfAbsent(transaction.getCoin(), coin -> new HashSet<>()).add(period));
+            if (request.getCurrency() != Currency.USD) {
+                ratePeriods.computeIfAbsent(request.getCurrency(), currency -> new HashSet<>()).add(period);
+            }
+        }
+
+        var futures = new HashMap<Coin, Map<Period, CompletableFuture<PriceSeries>>>();
+        periods.forEach((coin, coinPeriods) -> {
+            var coinFutures = new HashMap<Period, CompletableFuture<PriceSeries>>();
+            merge(coinPeriods).forEach(period ->
+                    coinFutures.put(period, fetchCoinPricesAsync(coin, period.from(), period.to())));
+            futures.put(coin, coinFutures);
+        });
+        var rateFutures = new EnumMap<Currency, Map<Period, CompletableFuture<PriceSeries>>>(Currency.class);
+        ratePeriods.forEach((currency, currencyPeriods) -> {
+            var currencyFutures = new HashMap<Period, CompletableFuture<PriceSeries>>();
+            merge(currencyPeriods).forEach(period -> currencyFutures.put(period, CompletableFuture.supplyAsync(
+                    () -> exchangeRateService.readRates(period.from().minusHours(1), period.to().plusHours(1),
+                            currency),
+                    priceFetchExecutor)));
+            rateFutures.put(currency, currencyFutures);
+        });
 
-        return sum / hourlyBalances.size();
+        return IntStream.range(0, requests.size()).mapToObj(index -> {
+            var request = requests.get(index);
+            try {
+                var result = timed(() -> {
+                    var period = new Period(request.getFrom(), request.getTo());
+                    var session = openSession(request.getFrom(), request.getTo(), CalculationSettings.of(request),
+                            () -> await(covering(rateFutures.get(request.getCurrency()), period)), coins -> {
+                        var coinPriceMap = new HashMap<Coin, PriceSeries>();
+                        coins.forEach(coin -> coinPriceMap.put(coin, await(covering(futures.get(coin), period))));
+                        return coinPriceMap;
+                    }, CalculationProgressListener.NONE);
+                    session.addAll(request.getTransactions());
+                    return session.result(request.isIncludeBreakdown());
+                });
+                return AverageBalanceBatchResult.success(index, result);
+            } catch (RuntimeException e) {
+                log.debug("Batch calculation {} failed", index, e);
+                return AverageBalanceBatchResult.failure(index, e.getMessage());
+            }
+        });
     }
 
-    private double calculateHourlyBalance(Transaction transaction, double previousBalance) {
-        return transaction.getType() == TransactionType.DEPOSIT ?
-                previousBalance + transaction.getAmount() :
-                previousBalance - transaction.getAmount();
+    /**
+     * Fetches the price series of all coins concurrently and waits for all of them.
+     * A failed fetch is rethrown as is once every fetch has completed. If the waiting thread is interrupted,
+     * the outstanding fetches are interrupted too and the calculation is cancelled.
+     */
+    private Map<Coin, PriceSeries> fetchCoinPrices(Set<Coin> coins, ZonedDateTime from, ZonedDateTime to,
+                                                   CalculationProgressListener progressListener) {
+        var futures = new LinkedHashMap<Coin, CompletableFuture<PriceSeries>>();
+        var fetched = new AtomicInteger();
+        for (var coin : coins) {
+            var future = fetchCoinPricesAsync(coin, from, to);
+            future.whenComplete((prices, e) -> progressListener.coinsFetched(fetched.incrementAndGet(), coins.size()));
+            futures.put(coin, future);
+        }
+
+        var all = CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new));
+        try {
+            all.get();
+        } catch (InterruptedException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Calculation cancelled");
+        } catch (ExecutionException e) {
+            await(all);
+        }
+
+        var coinPriceMap = new HashMap<Coin, PriceSeries>();
+        futures.forEach((coin, future) -> coinPriceMap.put(coin, future.join()));
+        return coinPriceMap;
+    }
+
+    /**
+     * Starts fetching the price series of a coin. Cancelling the returned future interrupts the fetch.
+     */
+    private CompletableFuture<PriceSeries> fetchCoinPricesAsync(Coin coin, ZonedDateTime from, ZonedDateTime to) {
+        var future = new CompletableFuture<PriceSeries>();
+        var task = new FutureTask<>(() -> priceFetchTimer.record(
+                () -> coinService.readPrices(from.minusHours(1), to.plusHours(1), coin))) {
+            @Override
+            protected void done() {
+                switch (state()) {
+                    case SUCCESS -> future.complete(resultNow());
+                    case FAILED -> future.completeExceptionally(exceptionNow());
+                    default -> future.cancel(false);
+                }
+            }
+        };
+        future.whenComplete((prices, e) -> {
+            if (future.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        priceFetchExecutor.execute(task);
+        return future;
     }
 
-    private Set<CoinPrice> fetchCoinPrices(Coin coin, ZonedDateTime from, ZonedDateTime to) {
-        return coinService.readPrices(from.minusHours(1), to.plusHours(1), coin);
+    /**
+     * Runs a calculation and records its duration, tagged by whether it succeeded.
+     */
+    private AverageBalanceResult timed(Supplier<AverageBalanceResult> calculation) {
+        var start = System.nanoTime();
+        var timer = failureTimer;
+        try {
+            var result = calculation.get();
+            timer = successTimer;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private boolean isInRange(ZonedDateTime rangeStart, ZonedDateTime rangeEnd, Transaction transaction) {
-        return isInRange(rangeStart, rangeEnd, transaction.getDateTime().toEpochSecond());
+    private static Timer durationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(DURATION_METRIC)
+                .description("Time to calculate an average balance, including price fetches")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    private boolean isInRange(ZonedDateTime rangeStart, ZonedDateTime rangeEnd, long timestamp) {
-        return timestamp >= rangeStart.toEpochSecond() && timestamp < rangeEnd.toEpochSecond();
+    /**
+     * Period of a batch request, or a merge of the overlapping periods of several requests.
+     */
+    private record Period(ZonedDateTime from, ZonedDateTime to) {
+        boolean contains(Period other) {
+            return !other.from().isBefore(from) && !other.to().isAfter(to);
+        }
     }
 
-    private double findCoinPriceAtRange(ZonedDateTime rangeStart, ZonedDateTime rangeEnd, Set<CoinPrice> coinPrices) {
-        log.info("Searching coin price within date range {} - {}", rangeStart, rangeEnd);
-        return coinPrices.stream()
-                .filter(coinPrice -> isInRange(rangeStart, rangeEnd, coinPrice.timestamp().getEpochSecond()))
-                .map(CoinPrice::price)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Unable to find coin price for date range " + rangeStart + " - " + rangeEnd));
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
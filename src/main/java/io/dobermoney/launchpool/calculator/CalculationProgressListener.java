@@ -0,0 +1,29 @@
+package io.dobermoney.launchpool.calculator;
+
+/**
+ * Receives progress of an average balance calculation.
+ * Coin fetch progress is reported from the threads fetching prices, so implementations must be thread-safe.
+ */
+public interface CalculationProgressListener {
+    /** Listener ignoring all progress. */
+    CalculationProgressListener NONE = new CalculationProgressListener() {
+    };
+
+    /**
+     * Called each time the price series of a coin has been fetched.
+     *
+     * @param fetched number of coins fetched so far
+     * @param total   number of coins to fetch
+     */
+    default void coinsFetched(int fetched, int total) {
+    }
+
+    /**
+     * Called each time the hourly balances of a coin have been recalculated.
+     *
+     * @param processed number of coin-hours recalculated so far
+     * @param total     number of coin-hours to recalculate
+     */
+    default void hoursProcessed(long processed, long total) {
+    }
+}
@@ -0,0 +1,31 @@
+package io.dobermoney.launchpool.calculator;
+
+import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.MissingPricePolicy;
+import io.dobermoney.launchpool.model.SamplingInterval;
+
+/**
+ * Options fixed for the lifetime of a calculation session.
+ *
+ * @param samplingInterval   resolution at which balances are sampled
+ * @param currency           currency the average is expressed in
+ * @param missingPricePolicy how hours without a coin price are valued
+ */
+public record CalculationSettings(SamplingInterval samplingInterval, Currency currency,
+                                  MissingPricePolicy missingPricePolicy) {
+    /** Hourly sampling in USD, failing on missing prices. */
+    public static final CalculationSettings DEFAULT =
+            new CalculationSettings(SamplingInterval.HOUR, Currency.USD, MissingPricePolicy.FAIL);
+
+    /**
+     * Returns the settings requested by a calculation request.
+     *
+     * @param request the calculation request
+     * @return the settings of the request
+     */
+    public static CalculationSettings of(AverageBalanceCalculationRequest request) {
+        return new CalculationSettings(request.getSamplingInterval(), request.getCurrency(),
+                request.getMissingPricePolicy());
+    }
+}
@@ -1,6 +1,8 @@
 package io.dobermoney.launchpool.calculator.request;
 
 import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.MissingPricePolicy;
+import io.dobermoney.launchpool.model.SamplingInterval;
 import io.dobermoney.launchpool.model.Transaction;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,5 +19,15 @@ public class AverageBalanceCalculationRequest {
     private List<Transaction> transactions;
     private ZonedDateTime from;
     private ZonedDateTime to;
-    private Currency currency;
+    /** Currency the average is expressed in; USD by default. */
+    @Builder.Default
+    private Currency currency = Currency.USD;
+    /** Resolution at which balances are sampled; hourly by default. */
+    @Builder.Default
+    private SamplingInterval samplingInterval = SamplingInterval.HOUR;
+    /** How hours without a coin price are valued; failing the calculation by default. */
+    @Builder.Default
+    private MissingPricePolicy missingPricePolicy = MissingPricePolicy.FAIL;
+    /** Whether the result should include the per-hour, per-coin breakdown. */
+    private boolean includeBreakdown;
 }
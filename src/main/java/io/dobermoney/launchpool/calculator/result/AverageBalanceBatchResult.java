@@ -0,0 +1,50 @@
+package io.dobermoney.launchpool.calculator.result;
+
+import java.util.List;
+
+/**
+ * Outcome of one request of a batch calculation: either the average balance or the reason it failed.
+ *
+ * @param index          position of the request in the batch
+ * @param averageBalance the time-weighted average balance, or {@code null} if the calculation failed
+ * @param filledHours    hours whose missing price was filled, empty if the calculation failed
+ * @param stalePrices    whether some coin prices were served from storage while Coingecko was unavailable
+ * @param error          failure description, or {@code null} if the calculation succeeded
+ */
+public record AverageBalanceBatchResult(int index, Double averageBalance, List<FilledHour> filledHours,
+                                        boolean stalePrices, String error) {
+
+    /**
+     * Creates a successful result.
+     *
+     * @param index          position of the request in the batch
+     * @param averageBalance the time-weighted average balance
+     * @return the result
+     */
+    public static AverageBalanceBatchResult success(int index, double averageBalance) {
+        return new AverageBalanceBatchResult(index, averageBalance, List.of(), false, null);
+    }
+
+    /**
+     * Creates a successful result from the result of the calculation.
+     *
+     * @param index  position of the request in the batch
+     * @param result the calculation result
+     * @return the result
+     */
+    public static AverageBalanceBatchResult success(int index, AverageBalanceResult result) {
+        return new AverageBalanceBatchResult(index, result.getAverageBalance(), result.getFilledHours(),
+                result.isStalePrices(), null);
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param index position of the request in the batch
+     * @param error failure description
+     * @return the result
+     */
+    public static AverageBalanceBatchResult failure(int index, String error) {
+        return new AverageBalanceBatchResult(index, null, List.of(), false, error);
+    }
+}
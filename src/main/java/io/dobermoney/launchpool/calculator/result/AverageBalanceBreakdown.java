@@ -0,0 +1,89 @@
+package io.dobermoney.launchpool.calculator.result;
+
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.Currency;
+import lombok.Getter;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Per-hour, per-coin balances behind an average balance, e.g. for charting.
+ * <p>
+ * Balances are held in primitive columns, one {@code double[]} per coin indexed by hour;
+ * the coin ordinal is the coin's index in {@link #getCoins()}. The arrays are exposed without copying
+ * and must not be modified.
+ * <p>
+ * Coin values are kept in USD, as they are calculated; {@link #totalBalance(int)} converts an hour's total into
+ * the requested currency at that hour's rate, which is what the average balance is taken over.
+ */
+@Getter
+public class AverageBalanceBreakdown {
+    /** Coins of the calculation; a coin's index is its ordinal in the balance arrays. */
+    private final List<Coin> coins;
+    /** Start of the first hour. */
+    private final ZonedDateTime start;
+    /** Number of hours. */
+    private final int hours;
+    /**
+     * Coin amounts held during each hour, time-weighted over the part of the hour inside the period,
+     * indexed by coin ordinal and hour.
+     */
+    private final double[][] balances;
+    /** USD value of the amounts at the price of each hour, indexed by coin ordinal and hour. */
+    private final double[][] usdBalances;
+    /** Requested currency of the calculation. */
+    private final Currency currency;
+    /** Units of the requested currency per USD in each hour, 1 for USD and NaN where no rate is known. */
+    private final double[] rates;
+
+    /**
+     * Creates a breakdown.
+     *
+     * @param coins       coins of the calculation
+     * @param start       start of the first hour
+     * @param balances    coin amounts indexed by coin ordinal and hour
+     * @param usdBalances USD values indexed by coin ordinal and hour
+     * @param currency    requested currency of the calculation
+     * @param rates       units of the requested currency per USD, indexed by hour
+     */
+    public AverageBalanceBreakdown(List<Coin> coins, ZonedDateTime start, double[][] balances, double[][] usdBalances,
+                                   Currency currency, double[] rates) {
+        this.coins = List.copyOf(coins);
+        this.start = start;
+        this.hours = balances.length == 0 ? 0 : balances[0].length;
+        this.balances = balances;
+        this.usdBalances = usdBalances;
+        this.currency = currency;
+        this.rates = rates;
+    }
+
+    /**
+     * @param hour hour index
+     * @return start of the hour
+     */
+    public ZonedDateTime hourStart(int hour) {
+        return start.plusHours(hour);
+    }
+
+    /**
+     * @param hour hour index
+     * @return total USD value of all coins in the hour
+     */
+    public double totalUsdBalance(int hour) {
+        var total = 0D;
+        for (var column : usdBalances) {
+            total += column[hour];
+        }
+        return total;
+    }
+
+    /**
+     * @param hour hour index
+     * @return total value of all coins in the hour in the requested currency
+     */
+    public double totalBalance(int hour) {
+        var total = totalUsdBalance(hour);
+        return total == 0 ? 0 : total * rates[hour];
+    }
+}
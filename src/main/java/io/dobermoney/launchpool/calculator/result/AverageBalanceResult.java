@@ -0,0 +1,31 @@
+package io.dobermoney.launchpool.calculator.result;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of an average balance calculation.
+ */
+@Builder
+@Getter
+public class AverageBalanceResult {
+    /** Time-weighted average balance in the requested currency. */
+    private final double averageBalance;
+    /** Hours with a non-zero balance whose price was filled by the missing price policy. */
+    @Builder.Default
+    private final List<FilledHour> filledHours = List.of();
+    /** Whether some coin prices were served from storage while Coingecko was unavailable and may be incomplete. */
+    private final boolean stalePrices;
+    private final AverageBalanceBreakdown breakdown;
+
+    /**
+     * @return per-hour, per-coin balances with USD values and the hourly rates into the requested currency,
+     * present only if requested
+     */
+    public Optional<AverageBalanceBreakdown> getBreakdown() {
+        return Optional.ofNullable(breakdown);
+    }
+}
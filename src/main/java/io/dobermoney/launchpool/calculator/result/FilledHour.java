@@ -0,0 +1,14 @@
+package io.dobermoney.launchpool.calculator.result;
+
+import io.dobermoney.launchpool.model.Coin;
+
+import java.time.ZonedDateTime;
+
+/**
+ * An hour in which a coin had no price sample and its price was filled by the missing price policy.
+ *
+ * @param coin the coin whose price was filled
+ * @param hour start of the filled hour
+ */
+public record FilledHour(Coin coin, ZonedDateTime hour) {
+}
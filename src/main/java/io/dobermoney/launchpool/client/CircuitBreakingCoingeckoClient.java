@@ -0,0 +1,67 @@
+package io.dobermoney.launchpool.client;
+
+import io.dobermoney.launchpool.client.response.CoingeckoCoinResponse;
+import io.dobermoney.launchpool.client.response.CoingeckoHistoricalChartDataResponse;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link CoingeckoClient} decorator that guards every call with a {@link CoingeckoCircuitBreaker}.
+ * Connection failures, timeouts, 429 and 5xx responses and rate limit budget timeouts count as failures;
+ * any other answer, including a 4xx error, shows that Coingecko is reachable and counts as a success.
+ * Calls failing for other reasons, e.g. an interrupt, are not counted either way.
+ */
+public class CircuitBreakingCoingeckoClient implements CoingeckoClient {
+    private final CoingeckoClient delegate;
+    private final CoingeckoCircuitBreaker circuitBreaker;
+
+    /**
+     * Creates a circuit breaking client.
+     *
+     * @param delegate       the client performing the calls
+     * @param circuitBreaker application-wide circuit breaker
+     */
+    public CircuitBreakingCoingeckoClient(CoingeckoClient delegate, CoingeckoCircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public List<CoingeckoCoinResponse> coinsMarkets(String currency, String order, int pageSize, int page) {
+        return guard(() -> delegate.coinsMarkets(currency, order, pageSize, page));
+    }
+
+    @Override
+    public CoingeckoHistoricalChartDataResponse coinsMarketChartRange(String id, String currency, long from, long to) {
+        return guard(() -> delegate.coinsMarketChartRange(id, currency, from, to));
+    }
+
+    private <T> T guard(Supplier<T> request) {
+        circuitBreaker.acquirePermission();
+        try {
+            var result = request.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (RuntimeException e) {
+            if (isOutage(e)) {
+                circuitBreaker.onFailure();
+            } else if (e instanceof RestClientResponseException) {
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.releasePermission();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isOutage(RuntimeException e) {
+        if (e instanceof RestClientResponseException responseException) {
+            var status = responseException.getStatusCode();
+            return status.is5xxServerError() || status.value() == 429;
+        }
+        return e instanceof ResourceAccessException || e instanceof CoingeckoRateLimitException;
+    }
+}
@@ -0,0 +1,121 @@
+package io.dobermoney.launchpool.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * Application-wide circuit breaker for Coingecko API calls.
+ * After {@code failureThreshold} consecutive failures the breaker opens and rejects calls immediately,
+ * so callers can fall back to stored prices instead of waiting out retries against an API that is down.
+ * Once the open duration has passed, a single probe call is let through: its success closes the breaker,
+ * its failure opens it again. The current state is published as {@code coingecko.circuit.state},
+ * one gauge per state that is 1 for the current state and 0 otherwise.
+ */
+@Slf4j
+public class CoingeckoCircuitBreaker implements MeterBinder {
+    static final String STATE_METRIC = "coingecko.circuit.state";
+
+    /**
+     * State of the breaker.
+     */
+    public enum State {
+        /** Calls pass through and failures are counted. */
+        CLOSED,
+        /** Calls are rejected until the open duration has passed. */
+        OPEN,
+        /** A single probe call is in flight; other calls are rejected. */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    /**
+     * Creates a closed circuit breaker.
+     *
+     * @param failureThreshold consecutive failures that open the breaker
+     * @param openDuration     time the breaker stays open before probing
+     */
+    public CoingeckoCircuitBreaker(int failureThreshold, Duration openDuration) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Admits a call, turning an open breaker whose open duration has passed into a half-open one
+     * with this call as its probe.
+     *
+     * @throws CoingeckoUnavailableException if the breaker is open or a probe is already in flight
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+            state = State.HALF_OPEN;
+            log.info("Coingecko circuit half-open, probing");
+            return;
+        }
+        if (state != State.CLOSED) {
+            throw new CoingeckoUnavailableException("Coingecko is unavailable, circuit is " + state);
+        }
+    }
+
+    /**
+     * Records a call that reached Coingecko and got a usable answer, closing the breaker.
+     */
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Coingecko circuit closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Records a failed call, opening the breaker after too many consecutive failures or a failed probe.
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || state == State.CLOSED && consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+            log.warn("Coingecko circuit opened after {} consecutive failures", consecutiveFailures);
+        }
+    }
+
+    /**
+     * Releases the permission of a call that ended without showing whether Coingecko is available,
+     * e.g. because it was interrupted. A half-open breaker lets the next call probe instead.
+     */
+    public synchronized void releasePermission() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    /**
+     * @return the current state
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var value : State.values()) {
+            Gauge.builder(STATE_METRIC, this, breaker -> breaker.state() == value ? 1 : 0)
+                    .description("Whether the Coingecko circuit breaker is in the given state")
+                    .tag("state", value.name().toLowerCase())
+                    .register(registry);
+        }
+    }
+}
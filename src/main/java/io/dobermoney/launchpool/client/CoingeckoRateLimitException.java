@@ -0,0 +1,16 @@
+package io.dobermoney.launchpool.client;
+
+/**
+ * Thrown when a Coingecko request cannot get a rate limit permit within the configured timeout.
+ */
+public class CoingeckoRateLimitException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message description of the rejected request
+     */
+    public CoingeckoRateLimitException(String message) {
+        super(message);
+    }
+}
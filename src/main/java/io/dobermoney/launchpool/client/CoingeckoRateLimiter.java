@@ -0,0 +1,97 @@
+package io.dobermoney.launchpool.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-wide token bucket limiting the rate of Coingecko API calls.
+ * Tokens refill evenly at the configured calls-per-minute budget and up to {@code burst} tokens can be saved.
+ * Callers reserve a token and wait for it, or fail fast when the wait would exceed the acquire timeout.
+ * A Retry-After from a 429 response pauses the whole bucket, so every caller backs off, not only the one that was rejected.
+ */
+@Slf4j
+public class CoingeckoRateLimiter {
+    private final long intervalNanos;
+    private final double burst;
+    private final long acquireTimeoutNanos;
+
+    private double storedTokens;
+    private long nextFreeNanos;
+
+    /**
+     * Creates a rate limiter with a full bucket.
+     *
+     * @param callsPerMinute calls allowed per minute by the API plan
+     * @param burst          maximum number of tokens saved up while idle
+     * @param acquireTimeout maximum time a caller waits for a token
+     */
+    public CoingeckoRateLimiter(int callsPerMinute, int burst, Duration acquireTimeout) {
+        if (callsPerMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Calls per minute and burst must be positive");
+        }
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / callsPerMinute;
+        this.burst = burst;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.storedTokens = burst;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token, waiting until it becomes available.
+     *
+     * @throws CoingeckoRateLimitException if no token becomes available within the acquire timeout
+     */
+    public void acquire() {
+        var waitNanos = reserve(System.nanoTime());
+        if (waitNanos < 0) {
+            throw new CoingeckoRateLimitException("Coingecko rate limit budget exhausted, no permit within "
+                    + Duration.ofNanos(acquireTimeoutNanos));
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a Coingecko rate limit permit", e);
+            }
+        }
+    }
+
+    /**
+     * Withholds all tokens for the given duration, e.g. after a 429 response with a Retry-After header.
+     *
+     * @param duration time during which no token is handed out
+     */
+    public synchronized void pauseFor(Duration duration) {
+        var now = System.nanoTime();
+        refill(now);
+        storedTokens = 0;
+        nextFreeNanos = Math.max(nextFreeNanos, now + duration.toNanos());
+        log.warn("Coingecko rate limit paused for {}", duration);
+    }
+
+    /**
+     * Reserves the next token and returns how long the caller has to wait for it,
+     * or {@code -1} if the wait would exceed the acquire timeout, in which case nothing is reserved.
+     */
+    private synchronized long reserve(long now) {
+        refill(now);
+        var waitNanos = Math.max(0, nextFreeNanos - now);
+        if (waitNanos > acquireTimeoutNanos) {
+            return -1;
+        }
+        var fromStored = Math.min(1, storedTokens);
+        storedTokens -= fromStored;
+        nextFreeNanos += (long) ((1 - fromStored) * intervalNanos);
+        return waitNanos;
+    }
+
+    private void refill(long now) {
+        if (now > nextFreeNanos) {
+            storedTokens = Math.min(burst, storedTokens + (double) (now - nextFreeNanos) / intervalNanos);
+            nextFreeNanos = now;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package io.dobermoney.launchpool.client;
+
+/**
+ * Thrown without calling Coingecko while the circuit breaker considers it unavailable.
+ */
+public class CoingeckoUnavailableException extends RuntimeException {
+
+    /**
+     * Creates the exception.
+     *
+     * @param message description of the rejected request
+     */
+    public CoingeckoUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package io.dobermoney.launchpool.client;
+
+import io.dobermoney.launchpool.client.response.CoingeckoCoinResponse;
+import io.dobermoney.launchpool.client.response.CoingeckoHistoricalChartDataResponse;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * {@link CoingeckoClient} decorator that takes a {@link CoingeckoRateLimiter} permit for every call
+ * and caps the number of requests in flight.
+ * A single instance is shared by all callers, so concurrent price fetches draw from one budget
+ * instead of each adding load that ends in 429 responses.
+ */
+public class ThrottledCoingeckoClient implements CoingeckoClient {
+    private final CoingeckoClient delegate;
+    private final CoingeckoRateLimiter rateLimiter;
+    private final Semaphore inFlightPermits;
+
+    /**
+     * Creates a throttled client.
+     *
+     * @param delegate              the client performing the HTTP calls
+     * @param rateLimiter           application-wide call budget
+     * @param maxConcurrentRequests maximum number of requests in flight
+     */
+    public ThrottledCoingeckoClient(CoingeckoClient delegate, CoingeckoRateLimiter rateLimiter, int maxConcurrentRequests) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+        this.inFlightPermits = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    @Override
+    public List<CoingeckoCoinResponse> coinsMarkets(String currency, String order, int pageSize, int page) {
+        return throttle(() -> delegate.coinsMarkets(currency, order, pageSize, page));
+    }
+
+    @Override
+    public CoingeckoHistoricalChartDataResponse coinsMarketChartRange(String id, String currency, long from, long to) {
+        return throttle(() -> delegate.coinsMarketChartRange(id, currency, from, to));
+    }
+
+    private <T> T throttle(Supplier<T> request) {
+        rateLimiter.acquire();
+        try {
+            inFlightPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Coingecko request slot", e);
+        }
+        try {
+            return request.get();
+        } finally {
+            inFlightPermits.release();
+        }
+    }
+}
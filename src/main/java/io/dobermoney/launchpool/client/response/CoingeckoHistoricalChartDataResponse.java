@@ -1,18 +1,20 @@
 package io.dobermoney.launchpool.client.response;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.dobermoney.launchpool.model.PriceSeries;
 import lombok.Getter;
 import lombok.Setter;
-
-import java.util.List;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 /**
  * DTO for Coingecko market_chart/range API response.
- * Prices are lists of [timestamp_ms, price] pairs.
+ * Prices are [timestamp_ms, price] pairs, streamed directly into a {@link PriceSeries}.
+ * Market caps and total volumes are not mapped and are skipped without being materialized.
  */
 @Getter
 @Setter
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CoingeckoHistoricalChartDataResponse {
-    private List<List<Double>> prices;
+    @JsonDeserialize(using = PriceSeriesDeserializer.class)
+    private PriceSeries prices = PriceSeries.empty();
 }
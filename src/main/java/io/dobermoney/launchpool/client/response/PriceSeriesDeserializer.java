@@ -0,0 +1,48 @@
+package io.dobermoney.launchpool.client.response;
+
+import io.dobermoney.launchpool.model.PriceSeries;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+/**
+ * Streams Coingecko {@code [[timestamp_ms, price], ...]} arrays straight into a {@link PriceSeries},
+ * without materializing nested lists or boxed numbers. Timestamps are truncated to whole seconds
+ * and pairs with a {@code null} price are skipped.
+ */
+public class PriceSeriesDeserializer extends ValueDeserializer<PriceSeries> {
+    /** Initial capacity, roughly a day of 5-minute samples; the builder grows for longer ranges. */
+    private static final int EXPECTED_SAMPLES = 256;
+
+    @Override
+    public PriceSeries deserialize(JsonParser parser, DeserializationContext context) {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (PriceSeries) context.handleUnexpectedToken(PriceSeries.class, parser);
+        }
+
+        var builder = PriceSeries.builder(EXPECTED_SAMPLES);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_ARRAY) {
+                return (PriceSeries) context.handleUnexpectedToken(PriceSeries.class, parser);
+            }
+            parser.nextToken();
+            var timestampMillis = parser.getValueAsLong();
+            var priceToken = parser.nextToken();
+            var price = parser.getValueAsDouble();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+            }
+            if (priceToken != JsonToken.VALUE_NULL) {
+                builder.add(Math.floorDiv(timestampMillis, 1000L), price);
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public PriceSeries getNullValue(DeserializationContext context) {
+        return PriceSeries.empty();
+    }
+}
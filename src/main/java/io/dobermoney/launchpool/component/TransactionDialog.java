@@ -14,6 +14,7 @@ import com.vaadin.flow.data.renderer.ComponentRenderer;
 import io.dobermoney.launchpool.model.Coin;
 import io.dobermoney.launchpool.model.Transaction;
 import io.dobermoney.launchpool.model.TransactionType;
+import io.dobermoney.launchpool.service.CoinCatalogService;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -21,7 +22,6 @@ import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Locale;
-import java.util.Set;
 
 /**
  * Dialog for creating or editing a launchpool transaction.
@@ -43,26 +43,26 @@ public class TransactionDialog extends Composite<Dialog> {
     /**
      * Creates a dialog for adding a new transaction.
      *
-     * @param coins available coins to choose from
+     * @param coinCatalogService catalog of the coins to choose from
      */
-    public TransactionDialog(Set<Coin> coins) {
+    public TransactionDialog(CoinCatalogService coinCatalogService) {
         this(
                 Transaction.builder()
                         .type(TransactionType.DEPOSIT)
                         .dateTime(ZonedDateTime.now())
                         .build(),
-                coins
+                coinCatalogService
         );
     }
 
     /**
      * Creates a dialog for editing an existing transaction.
      *
-     * @param transaction the transaction to edit
-     * @param coins       available coins to choose from
+     * @param transaction        the transaction to edit
+     * @param coinCatalogService catalog of the coins to choose from
      */
-    public TransactionDialog(Transaction transaction, Set<Coin> coins) {
-        this.coinField = buildCoinField(coins);
+    public TransactionDialog(Transaction transaction, CoinCatalogService coinCatalogService) {
+        this.coinField = buildCoinField(coinCatalogService);
         this.dateTimeField = buildDateTimeField();
         this.typeField = buildTypeField();
         this.amountField = buildAmountField();
@@ -119,9 +119,18 @@ public class TransactionDialog extends Composite<Dialog> {
         return typeField;
     }
 
-    private ComboBox<Coin> buildCoinField(Set<Coin> coins) {
+    /**
+     * Builds the coin field with a lazy data provider, so the browser only receives the coins
+     * of the pages it shows and filtering runs against the catalog's prefix index.
+     */
+    private ComboBox<Coin> buildCoinField(CoinCatalogService coinCatalogService) {
         var coinField = new ComboBox<Coin>();
-        coinField.setItems(coins);
+        coinField.setItems(
+                query -> coinCatalogService.getCatalog()
+                        .find(query.getFilter().orElse(""), query.getOffset(), query.getLimit())
+                        .stream(),
+                query -> coinCatalogService.getCatalog().count(query.getFilter().orElse(""))
+        );
         coinField.setLabel("Coin");
         coinField.setPlaceholder("Select Coin");
         coinField.setRenderer(new ComponentRenderer<>(CoinComponent::new));
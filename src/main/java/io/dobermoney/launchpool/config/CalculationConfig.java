@@ -0,0 +1,53 @@
+package io.dobermoney.launchpool.config;
+
+import io.dobermoney.launchpool.config.properties.CalculationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for average balance calculations.
+ * Defines the executor used to fetch the price series of several coins concurrently
+ * and the bounded executor running calculations started from the UI.
+ */
+@Configuration
+public class CalculationConfig {
+    public static final String PRICE_FETCH_EXECUTOR_BEAN = "priceFetchExecutor";
+    public static final String CALCULATION_EXECUTOR_BEAN = "calculationExecutor";
+
+    /**
+     * Creates an executor running each price fetch on its own virtual thread.
+     * The number of concurrent Coingecko requests is bounded by the client, not by this executor.
+     *
+     * @return executor for price fetches
+     */
+    @Bean(PRICE_FETCH_EXECUTOR_BEAN)
+    public ExecutorService priceFetchExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Creates the executor running calculations started from the UI, off the request threads.
+     * Both the number of running calculations and the number of waiting ones are bounded;
+     * submissions beyond the queue capacity are rejected.
+     *
+     * @param properties concurrency limits of calculations
+     * @return executor for UI calculations
+     */
+    @Bean(CALCULATION_EXECUTOR_BEAN)
+    public ExecutorService calculationExecutor(CalculationProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.maxConcurrent(),
+                properties.maxConcurrent(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofPlatform().name("calculation-", 0).factory()
+        );
+    }
+}
@@ -1,12 +1,28 @@
 package io.dobermoney.launchpool.config;
 
+import io.dobermoney.launchpool.client.CircuitBreakingCoingeckoClient;
+import io.dobermoney.launchpool.client.CoingeckoCircuitBreaker;
 import io.dobermoney.launchpool.client.CoingeckoClient;
+import io.dobermoney.launchpool.client.CoingeckoRateLimiter;
+import io.dobermoney.launchpool.client.ThrottledCoingeckoClient;
 import io.dobermoney.launchpool.config.properties.CoingeckoProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.retry.RetryCallback;
 import org.springframework.retry.RetryContext;
 import org.springframework.retry.RetryListener;
@@ -19,11 +35,13 @@ import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.time.Duration;
 import java.util.Optional;
 
 /**
  * Configuration for Coingecko API integration.
- * Defines the HTTP client, retry template with Retry-After header support for rate limits.
+ * Defines the HTTP client with its pooled transport, the shared rate limiter and circuit breaker,
+ * and the retry template with Retry-After header support for rate limits.
  */
 @Slf4j
 @Configuration
@@ -31,37 +49,136 @@ public class CoingeckoConfig {
     private static final String API_KEY_HEADER = "x_cg_pro_api_key";
     private static final int MAX_RETRY_ATTEMPTS = 5;
     private static final long DEFAULT_RETRY_AFTER_SECONDS = 60;
+    private static final String MARKET_CHART_PATH = "/market_chart/range";
+
+    static final String RATE_LIMITED_METRIC = "coingecko.rate.limited";
+    static final String CONNECTION_POOL_NAME = "coingecko";
 
     public static final String COINGECKO_RETRY_TEMPLATE_BEAN = "coingeckoRetryTemplate";
 
     /**
-     * Creates the Coingecko HTTP client with API key and base URL configured.
+     * Creates the token bucket shared by all Coingecko API calls.
      *
      * @param properties Coingecko API configuration
+     * @return rate limiter sized for the configured API plan
+     */
+    @Bean
+    public CoingeckoRateLimiter coingeckoRateLimiter(CoingeckoProperties properties) {
+        var rateLimit = properties.rateLimit();
+        return new CoingeckoRateLimiter(rateLimit.callsPerMinute(), rateLimit.burst(), rateLimit.acquireTimeout());
+    }
+
+    /**
+     * Creates the circuit breaker shared by all Coingecko API calls. Its state is published as a metric.
+     *
+     * @param properties Coingecko API configuration
+     * @return closed circuit breaker
+     */
+    @Bean
+    public CoingeckoCircuitBreaker coingeckoCircuitBreaker(CoingeckoProperties properties) {
+        var circuitBreaker = properties.circuitBreaker();
+        return new CoingeckoCircuitBreaker(circuitBreaker.failureThreshold(), circuitBreaker.openDuration());
+    }
+
+    /**
+     * Creates the Coingecko HTTP client with API key and base URL configured.
+     * The client is shared application-wide. Calls are rejected right away while the circuit breaker is open;
+     * otherwise every call takes a rate limiter permit and the number of requests in flight is capped.
+     * Requests are observed as {@code http.client.requests}.
+     *
+     * @param properties          Coingecko API configuration
+     * @param rateLimiter         shared Coingecko call budget
+     * @param circuitBreaker      shared Coingecko circuit breaker
+     * @param meterRegistry       registry of the connection pool metrics
+     * @param observationRegistry registry observing every HTTP exchange
      * @return configured CoingeckoClient
      */
     @Bean
-    public CoingeckoClient coingeckoClient(CoingeckoProperties properties) {
+    public CoingeckoClient coingeckoClient(CoingeckoProperties properties, CoingeckoRateLimiter rateLimiter,
+                                           CoingeckoCircuitBreaker circuitBreaker, MeterRegistry meterRegistry,
+                                           ObservationRegistry observationRegistry) {
         var restClient = RestClient.builder()
                 .baseUrl(properties.apiUrl())
                 .defaultHeader(API_KEY_HEADER, properties.apiKey())
+                .requestFactory(requestFactory(properties.http(), meterRegistry))
+                .observationRegistry(observationRegistry)
                 .build();
 
         var httpServiceProxyFactory = HttpServiceProxyFactory
                 .builderFor(RestClientAdapter.create(restClient))
                 .build();
 
-        return httpServiceProxyFactory.createClient(CoingeckoClient.class);
+        var throttledClient = new ThrottledCoingeckoClient(
+                httpServiceProxyFactory.createClient(CoingeckoClient.class),
+                rateLimiter,
+                properties.maxConcurrentRequests()
+        );
+        return new CircuitBreakingCoingeckoClient(throttledClient, circuitBreaker);
+    }
+
+    /**
+     * Creates a request factory backed by a pooled Apache HTTP client, so concurrent calls reuse kept-alive
+     * connections instead of paying a TLS handshake each. Responses are requested and decoded with gzip or
+     * deflate compression, and the market chart range endpoint, which returns the largest payloads,
+     * gets its own response timeout. The pool is exported as {@code httpcomponents.httpclient.pool.*}
+     * tagged {@code httpclient=coingecko}.
+     */
+    private static HttpComponentsClientHttpRequestFactory requestFactory(CoingeckoProperties.Http http,
+                                                                         MeterRegistry meterRegistry) {
+        var connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.maxConnections())
+                .setMaxConnPerRoute(http.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(http.connectTimeout()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, CONNECTION_POOL_NAME)
+                .bindTo(meterRegistry);
+
+        var marketsRequestConfig = requestConfig(http, http.marketsTimeout());
+        var marketChartRequestConfig = requestConfig(http, http.marketChartTimeout());
+        var httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(marketsRequestConfig)
+                .evictIdleConnections(TimeValue.of(http.keepAlive()))
+                .build();
+
+        var requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            var context = HttpClientContext.create();
+            context.setRequestConfig(uri.getPath().endsWith(MARKET_CHART_PATH) ?
+                    marketChartRequestConfig : marketsRequestConfig);
+            return context;
+        });
+        return requestFactory;
+    }
+
+    private static RequestConfig requestConfig(CoingeckoProperties.Http http, Duration responseTimeout) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(http.connectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(responseTimeout))
+                .setConnectionKeepAlive(TimeValue.of(http.keepAlive()))
+                .build();
     }
 
     /**
      * Creates a RetryTemplate configured for Coingecko API rate limit handling.
-     * Retries up to 5 times on 429 responses, waiting for the Retry-After header duration between attempts.
+     * Retries up to 5 times on 429 responses. Instead of sleeping on the caller's thread, the Retry-After
+     * duration pauses the shared rate limiter, so the retry and every other call wait for the budget
+     * or fail fast once the wait exceeds the acquire timeout. Every 429 response is counted as
+     * {@code coingecko.rate.limited}. Once the circuit breaker opens, the next attempt is rejected
+     * and not retried.
      *
+     * @param rateLimiter   shared Coingecko call budget
+     * @param meterRegistry registry of the rate limit counter
      * @return configured RetryTemplate for Coingecko API calls
      */
     @Bean(COINGECKO_RETRY_TEMPLATE_BEAN)
-    public RetryTemplate coingeckoRetryTemplate() {
+    public RetryTemplate coingeckoRetryTemplate(CoingeckoRateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        var rateLimited = Counter.builder(RATE_LIMITED_METRIC)
+                .description("Coingecko responses rejected with 429 Too Many Requests")
+                .register(meterRegistry);
+
         var retryPolicy = new ExceptionClassifierRetryPolicy();
         retryPolicy.setExceptionClassifier(throwable -> {
             if (isRateLimitError(throwable)) {
@@ -72,14 +189,18 @@ public class CoingeckoConfig {
 
         var retryTemplate = RetryTemplate.builder()
                 .customPolicy(retryPolicy)
-                .customBackoff(new RetryAfterBackOffPolicy())
+                .noBackoff()
                 .build();
 
         retryTemplate.registerListener(new RetryListener() {
             @Override
             public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+                if (!isRateLimitError(throwable)) {
+                    return;
+                }
+                rateLimited.increment();
                 long retryAfterSeconds = parseRetryAfter(throwable);
-                RetryAfterBackOffPolicy.setRetryAfterSeconds(context, retryAfterSeconds);
+                rateLimiter.pauseFor(Duration.ofSeconds(retryAfterSeconds));
                 log.warn("Coingecko rate limit (429), Retry-After: {}s, retry {}/{}",
                         retryAfterSeconds, context.getRetryCount(), MAX_RETRY_ATTEMPTS);
             }
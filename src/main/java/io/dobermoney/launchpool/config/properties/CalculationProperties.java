@@ -0,0 +1,19 @@
+package io.dobermoney.launchpool.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Configuration properties for calculations.
+ *
+ * @param maxConcurrent maximum number of UI calculations running at the same time
+ * @param queueCapacity maximum number of UI calculations waiting for a free slot; further ones are rejected
+ * @param maxBatchItems maximum number of items of a batch request; larger batches are rejected
+ */
+@ConfigurationProperties(prefix = "calculation")
+public record CalculationProperties(
+        @DefaultValue("4") int maxConcurrent,
+        @DefaultValue("16") int queueCapacity,
+        @DefaultValue("100") int maxBatchItems
+) {
+}
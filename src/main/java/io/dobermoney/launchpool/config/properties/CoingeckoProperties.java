@@ -1,13 +1,75 @@
 package io.dobermoney.launchpool.config.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
 
 /**
  * Configuration properties for the Coingecko API integration.
  *
- * @param apiKey API key for Coingecko Pro API (sent as x_cg_pro_api_key header)
- * @param apiUrl base URL for Coingecko API (e.g. <a href="https://api.coingecko.com/api/v3">...</a>)
+ * @param apiKey                API key for Coingecko Pro API (sent as x_cg_pro_api_key header)
+ * @param apiUrl                base URL for Coingecko API (e.g. <a href="https://api.coingecko.com/api/v3">...</a>)
+ * @param maxConcurrentRequests maximum number of Coingecko requests in flight across the whole application
+ * @param catalogPages          number of 250-coin pages of the coin catalog, ordered by market cap, to sync
+ * @param rateLimit             call budget of the API plan shared by all Coingecko requests
+ * @param http                  connection pool and timeouts of the HTTP transport
+ * @param circuitBreaker        when Coingecko is considered unavailable and calls fail fast
  */
 @ConfigurationProperties(prefix = "integrations.coingecko")
-public record CoingeckoProperties(String apiKey, String apiUrl) {
+public record CoingeckoProperties(
+        String apiKey,
+        String apiUrl,
+        @DefaultValue("4") int maxConcurrentRequests,
+        @DefaultValue("6") int catalogPages,
+        @DefaultValue RateLimit rateLimit,
+        @DefaultValue Http http,
+        @DefaultValue CircuitBreaker circuitBreaker
+) {
+
+    /**
+     * Token bucket settings for Coingecko API calls.
+     *
+     * @param callsPerMinute calls allowed per minute by the API plan (e.g. 30 for Demo, 500 for Analyst)
+     * @param burst          maximum number of calls that may be made back to back after an idle period
+     * @param acquireTimeout maximum time a request waits for the budget before it fails
+     */
+    public record RateLimit(
+            @DefaultValue("30") int callsPerMinute,
+            @DefaultValue("5") int burst,
+            @DefaultValue("PT30S") Duration acquireTimeout
+    ) {
+    }
+
+    /**
+     * HTTP transport settings for Coingecko API calls.
+     *
+     * @param maxConnections           size of the connection pool; at least {@code maxConcurrentRequests}
+     * @param connectTimeout           maximum time to establish a connection, including the TLS handshake
+     * @param connectionRequestTimeout maximum time a request waits for a pooled connection
+     * @param keepAlive                time an idle pooled connection is kept open for reuse
+     * @param marketsTimeout           maximum time without data from the coin markets endpoint
+     * @param marketChartTimeout       maximum time without data from the market chart range endpoint
+     */
+    public record Http(
+            @DefaultValue("8") int maxConnections,
+            @DefaultValue("PT5S") Duration connectTimeout,
+            @DefaultValue("PT10S") Duration connectionRequestTimeout,
+            @DefaultValue("PT1M") Duration keepAlive,
+            @DefaultValue("PT10S") Duration marketsTimeout,
+            @DefaultValue("PT30S") Duration marketChartTimeout
+    ) {
+    }
+
+    /**
+     * Circuit breaker settings for Coingecko API calls.
+     *
+     * @param failureThreshold consecutive failed calls after which calls are rejected without reaching Coingecko
+     * @param openDuration     time calls are rejected before a single probe call is let through
+     */
+    public record CircuitBreaker(
+            @DefaultValue("5") int failureThreshold,
+            @DefaultValue("PT1M") Duration openDuration
+    ) {
+    }
 }
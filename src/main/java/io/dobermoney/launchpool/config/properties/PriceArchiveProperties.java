@@ -0,0 +1,19 @@
+package io.dobermoney.launchpool.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration properties for the file-based price archive.
+ *
+ * @param enabled   whether historical prices are served from the archive instead of the database
+ * @param directory root directory of the archive files
+ */
+@ConfigurationProperties(prefix = "price-archive")
+public record PriceArchiveProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("./data/price-archive") Path directory
+) {
+}
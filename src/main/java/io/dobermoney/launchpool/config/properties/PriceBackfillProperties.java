@@ -0,0 +1,22 @@
+package io.dobermoney.launchpool.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration properties for the hourly price backfill of tracked coins.
+ *
+ * @param trackedCoins ids of the coins whose hourly prices are backfilled and kept up to date (e.g. bitcoin)
+ * @param history      how far back from now hourly prices are backfilled
+ * @param interval     time between backfill runs
+ */
+@ConfigurationProperties(prefix = "price-backfill")
+public record PriceBackfillProperties(
+        @DefaultValue List<String> trackedCoins,
+        @DefaultValue("P90D") Duration history,
+        @DefaultValue("PT15M") Duration interval
+) {
+}
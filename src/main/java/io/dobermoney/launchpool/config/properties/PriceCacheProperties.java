@@ -0,0 +1,22 @@
+package io.dobermoney.launchpool.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-memory price series cache.
+ *
+ * @param maxSize     upper bound of the estimated memory held by cached price series
+ * @param historyTtl  time to keep a series whose range lies entirely in the past
+ * @param liveEdgeTtl time to keep a series whose range reaches the last hour, where new samples still appear
+ */
+@ConfigurationProperties(prefix = "price-cache")
+public record PriceCacheProperties(
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("PT6H") Duration historyTtl,
+        @DefaultValue("PT1M") Duration liveEdgeTtl
+) {
+}
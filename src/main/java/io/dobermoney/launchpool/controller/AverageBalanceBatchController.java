@@ -0,0 +1,146 @@
+package io.dobermoney.launchpool.controller;
+
+import io.dobermoney.launchpool.calculator.AverageBalanceCalculator;
+import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceBatchResult;
+import io.dobermoney.launchpool.config.properties.CalculationProperties;
+import io.dobermoney.launchpool.controller.request.AverageBalanceBatchItem;
+import io.dobermoney.launchpool.controller.request.AverageBalanceBatchRequest;
+import io.dobermoney.launchpool.controller.response.AverageBalanceBatchItemResponse;
+import io.dobermoney.launchpool.controller.response.FilledHourResponse;
+import io.dobermoney.launchpool.model.CoinCatalog;
+import io.dobermoney.launchpool.model.Transaction;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * REST endpoint for scoring many portfolios at once.
+ * <p>
+ * Items are evaluated together by {@link AverageBalanceCalculator#calculateAll(List)}, so coins shared across
+ * the batch are fetched once. Results are streamed as newline-delimited JSON in item order, each line written
+ * and flushed as soon as it is computed.
+ */
+@RestController
+@RequestMapping("/api/average-balance")
+@RequiredArgsConstructor
+public class AverageBalanceBatchController {
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final AverageBalanceCalculator averageBalanceCalculator;
+    private final CoinCatalogService coinCatalogService;
+    private final JsonMapper jsonMapper;
+    private final CalculationProperties calculationProperties;
+
+    /**
+     * Calculates the average balance of every item of the batch.
+     * An item that fails, e.g. because of an invalid period, an unknown coin, a missing field or a missing price,
+     * yields a line with an error instead of an average balance.
+     *
+     * @param batch the batch of calculations
+     * @return one JSON line per item, in item order
+     * @throws ResponseStatusException with status 400 if the batch has more items than configured
+     */
+    @PostMapping(path = "/batch", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> calculateBatch(@RequestBody AverageBalanceBatchRequest batch) {
+        var items = batch.getItems() == null ? List.<AverageBalanceBatchItem>of() : batch.getItems();
+        if (items.size() > calculationProperties.maxBatchItems()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch has " + items.size()
+                    + " items, at most " + calculationProperties.maxBatchItems() + " are allowed");
+        }
+        var catalog = coinCatalogService.getCatalog();
+
+        var requests = new ArrayList<AverageBalanceCalculationRequest>();
+        var rejections = new HashMap<Integer, String>();
+        for (var index = 0; index < items.size(); index++) {
+            var item = items.get(index);
+            var rejection = validate(item, catalog);
+            if (rejection != null) {
+                rejections.put(index, rejection);
+            } else {
+                requests.add(toRequest(item, catalog));
+            }
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Iterator<AverageBalanceBatchResult> results = averageBalanceCalculator.calculateAll(requests).iterator();
+            for (var index = 0; index < items.size(); index++) {
+                var rejection = rejections.get(index);
+                var result = rejection == null ? results.next() : null;
+                var line = new AverageBalanceBatchItemResponse(
+                        items.get(index) == null ? null : items.get(index).getId(),
+                        index,
+                        result == null ? null : result.averageBalance(),
+                        result == null ? List.of() : result.filledHours().stream()
+                                .map(filledHour -> new FilledHourResponse(filledHour.coin().getId(), filledHour.hour()))
+                                .toList(),
+                        result != null && result.stalePrices(),
+                        result == null ? rejection : result.error()
+                );
+                outputStream.write(jsonMapper.writeValueAsBytes(line));
+                outputStream.write('\n');
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Returns why the item cannot be calculated, or {@code null} if it is complete and all its coins are known.
+     */
+    private static String validate(AverageBalanceBatchItem item, CoinCatalog catalog) {
+        if (item == null) {
+            return "Missing item";
+        }
+        if (item.getCurrency() == null || item.getSamplingInterval() == null || item.getMissingPricePolicy() == null) {
+            return "Currency, sampling interval and missing price policy must not be null";
+        }
+        if (item.getTransactions() == null) {
+            return "Missing transactions";
+        }
+        for (var index = 0; index < item.getTransactions().size(); index++) {
+            var transaction = item.getTransactions().get(index);
+            if (transaction == null || transaction.getDateTime() == null || transaction.getType() == null
+                    || transaction.getCoinId() == null) {
+                return "Transaction " + index + " must have a date, a type and a coin id";
+            }
+            if (catalog.findById(transaction.getCoinId()).isEmpty()) {
+                return "Unknown coin: " + transaction.getCoinId();
+            }
+        }
+        return null;
+    }
+
+    private AverageBalanceCalculationRequest toRequest(AverageBalanceBatchItem item, CoinCatalog catalog) {
+        List<Transaction> transactions = item.getTransactions().stream()
+                .map(transaction -> Transaction.builder()
+                        .dateTime(transaction.getDateTime())
+                        .type(transaction.getType())
+                        .coin(catalog.findById(transaction.getCoinId()).orElseThrow())
+                        .amount(transaction.getAmount())
+                        .build())
+                .toList();
+        return AverageBalanceCalculationRequest.builder()
+                .from(item.getFrom())
+                .to(item.getTo())
+                .currency(item.getCurrency())
+                .samplingInterval(item.getSamplingInterval())
+                .missingPricePolicy(item.getMissingPricePolicy())
+                .transactions(transactions)
+                .build();
+    }
+}
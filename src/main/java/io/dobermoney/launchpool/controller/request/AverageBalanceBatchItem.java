@@ -0,0 +1,30 @@
+package io.dobermoney.launchpool.controller.request;
+
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.MissingPricePolicy;
+import io.dobermoney.launchpool.model.SamplingInterval;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single calculation of a batch, shaped like
+ * {@link io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest} with coins referenced by id.
+ */
+@Getter
+@Setter
+public class AverageBalanceBatchItem {
+    /**
+     * Caller-defined identifier echoed back in the result, e.g. a portfolio id.
+     */
+    private String id;
+    private ZonedDateTime from;
+    private ZonedDateTime to;
+    private Currency currency = Currency.USD;
+    private SamplingInterval samplingInterval = SamplingInterval.HOUR;
+    private MissingPricePolicy missingPricePolicy = MissingPricePolicy.FAIL;
+    private List<TransactionItem> transactions = new ArrayList<>();
+}
@@ -0,0 +1,16 @@
+package io.dobermoney.launchpool.controller.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch of average balance calculations submitted over HTTP.
+ */
+@Getter
+@Setter
+public class AverageBalanceBatchRequest {
+    private List<AverageBalanceBatchItem> items = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package io.dobermoney.launchpool.controller.request;
+
+import io.dobermoney.launchpool.model.TransactionType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Transaction of a batch item, referencing its coin by Coingecko id.
+ */
+@Getter
+@Setter
+public class TransactionItem {
+    private ZonedDateTime dateTime;
+    private TransactionType type;
+    private String coinId;
+    private double amount;
+}
@@ -0,0 +1,23 @@
+package io.dobermoney.launchpool.controller.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Result of a single batch item, written as one line of the streamed response.
+ *
+ * @param id             identifier of the batch item
+ * @param index          position of the item in the batch
+ * @param averageBalance the time-weighted average balance, absent if the calculation failed
+ * @param filledHours    hours whose missing coin price was filled, absent if there are none
+ * @param stalePrices    whether some coin prices were served from storage while Coingecko was unavailable,
+ *                       absent if not
+ * @param error          failure description, absent if the calculation succeeded
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AverageBalanceBatchItemResponse(String id, int index, Double averageBalance,
+                                              @JsonInclude(JsonInclude.Include.NON_EMPTY) List<FilledHourResponse> filledHours,
+                                              @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean stalePrices,
+                                              String error) {
+}
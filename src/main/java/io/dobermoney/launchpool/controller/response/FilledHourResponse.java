@@ -0,0 +1,12 @@
+package io.dobermoney.launchpool.controller.response;
+
+import java.time.ZonedDateTime;
+
+/**
+ * An hour of a batch item whose missing coin price was filled.
+ *
+ * @param coinId id of the coin whose price was filled
+ * @param hour   start of the filled hour
+ */
+public record FilledHourResponse(String coinId, ZonedDateTime hour) {
+}
@@ -1,11 +1,14 @@
 package io.dobermoney.launchpool.entity;
 
+import io.dobermoney.launchpool.model.Coin;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.*;
 
+import java.util.Objects;
+
 /**
  * JPA entity representing a cryptocurrency coin stored in the database.
  */
@@ -31,4 +34,13 @@ public class JpaCoin {
     @Column(length = 1000)
     private String image;
 
+    /**
+     * @param coin coin with the same id
+     * @return whether the coin has the same name, symbol and image as this row
+     */
+    public boolean hasSameContent(Coin coin) {
+        return Objects.equals(name, coin.getName())
+                && Objects.equals(symbol, coin.getSymbol())
+                && Objects.equals(image, coin.getImage());
+    }
 }
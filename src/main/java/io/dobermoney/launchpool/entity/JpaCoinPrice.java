@@ -0,0 +1,40 @@
+package io.dobermoney.launchpool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * JPA entity representing a historical USD price sample of a coin stored in the database.
+ * Samples are only ever inserted, so new instances report themselves as new to skip the merge lookup.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Entity
+@Table(name = "coin_price")
+public class JpaCoinPrice implements Persistable<JpaCoinPriceId> {
+
+    @EmbeddedId
+    private JpaCoinPriceId id;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+}
@@ -0,0 +1,28 @@
+package io.dobermoney.launchpool.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Composite primary key of {@link JpaCoinPrice}: a coin and the time of the price sample.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@EqualsAndHashCode
+@Embeddable
+public class JpaCoinPriceId implements Serializable {
+
+    /** Coin identifier (e.g. bitcoin, ethereum). */
+    @Column(name = "coin_id", nullable = false)
+    private String coinId;
+
+    /** Sample time in seconds since epoch. */
+    @Column(name = "epoch_second", nullable = false)
+    private long epochSecond;
+
+}
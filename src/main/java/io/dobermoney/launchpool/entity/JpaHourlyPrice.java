@@ -0,0 +1,41 @@
+package io.dobermoney.launchpool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * JPA entity holding the USD price of a coin for one hour: the first price sample within the hour.
+ * The id's timestamp is the start of the hour. Rows are only ever inserted,
+ * so new instances report themselves as new to skip the merge lookup.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Entity
+@Table(name = "coin_hourly_price")
+public class JpaHourlyPrice implements Persistable<JpaCoinPriceId> {
+
+    @EmbeddedId
+    private JpaCoinPriceId id;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Transient
+    @Builder.Default
+    private boolean persisted = false;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+}
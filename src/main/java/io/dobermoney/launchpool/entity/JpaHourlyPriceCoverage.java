@@ -0,0 +1,30 @@
+package io.dobermoney.launchpool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * JPA entity recording the contiguous range of hours for which the hourly prices of a coin have been backfilled.
+ * The range is inclusive and expressed in seconds since epoch.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "coin_hourly_price_coverage")
+public class JpaHourlyPriceCoverage {
+
+    /** Coin identifier (e.g. bitcoin, ethereum). */
+    @Id
+    @Column(name = "coin_id")
+    private String coinId;
+
+    @Column(name = "from_epoch_second", nullable = false)
+    private long fromEpochSecond;
+
+    @Column(name = "to_epoch_second", nullable = false)
+    private long toEpochSecond;
+
+}
@@ -0,0 +1,32 @@
+package io.dobermoney.launchpool.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * JPA entity recording a time range for which all prices of a coin have been fetched and stored.
+ * Ranges are inclusive and expressed in seconds since epoch.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Entity
+@Table(name = "coin_price_coverage", indexes = @Index(columnList = "coin_id, from_epoch_second"))
+public class JpaPriceCoverage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "coin_id", nullable = false)
+    private String coinId;
+
+    @Column(name = "from_epoch_second", nullable = false)
+    private long fromEpochSecond;
+
+    @Column(name = "to_epoch_second", nullable = false)
+    private long toEpochSecond;
+
+}
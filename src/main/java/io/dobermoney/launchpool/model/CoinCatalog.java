@@ -0,0 +1,187 @@
+package io.dobermoney.launchpool.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable snapshot of the available coins with a prefix search index.
+ * <p>
+ * Coins are held sorted by symbol; a second sorted array of lower-cased names maps back to them.
+ * A filter matches coins whose symbol or name starts with it, ignoring case. Matches are ordered by symbol first,
+ * then the remaining name matches by name, so {@link #count(String)} and {@link #find(String, int, int)}
+ * page over a stable sequence found with binary searches instead of scanning the whole catalog.
+ */
+public final class CoinCatalog {
+    private static final Comparator<Coin> COIN_ORDER = Comparator
+            .comparing((Coin coin) -> key(coin.getSymbol()))
+            .thenComparing(coin -> key(coin.getName()))
+            .thenComparing(Coin::getId);
+    private static final CoinCatalog EMPTY = of(List.of());
+
+    private final Coin[] coins;
+    private final String[] symbolKeys;
+    private final String[] nameKeys;
+    private final int[] nameOrder;
+    private final Map<String, Coin> coinsById;
+    private final Set<Coin> coinSet;
+
+    private CoinCatalog(Coin[] coins) {
+        this.coins = coins;
+        this.symbolKeys = Arrays.stream(coins).map(coin -> key(coin.getSymbol())).toArray(String[]::new);
+        this.nameOrder = IntStream.range(0, coins.length)
+                .boxed()
+                .sorted(Comparator.comparing(index -> key(coins[index].getName())))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.nameKeys = Arrays.stream(nameOrder).mapToObj(index -> key(coins[index].getName())).toArray(String[]::new);
+        this.coinsById = new HashMap<>();
+        Arrays.stream(coins).forEach(coin -> coinsById.put(coin.getId(), coin));
+        this.coinSet = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(coins)));
+    }
+
+    /**
+     * Returns a catalog without coins.
+     *
+     * @return the empty catalog
+     */
+    public static CoinCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a catalog of the given coins. Coins with a duplicate id are dropped.
+     *
+     * @param coins the coins
+     * @return the catalog
+     */
+    public static CoinCatalog of(Collection<Coin> coins) {
+        var unique = new HashMap<String, Coin>();
+        coins.forEach(coin -> unique.putIfAbsent(coin.getId(), coin));
+        var sorted = unique.values().toArray(Coin[]::new);
+        Arrays.sort(sorted, COIN_ORDER);
+        return new CoinCatalog(sorted);
+    }
+
+    /**
+     * @return number of coins in the catalog
+     */
+    public int size() {
+        return coins.length;
+    }
+
+    /**
+     * @return all coins, ordered by symbol
+     */
+    public Set<Coin> coins() {
+        return coinSet;
+    }
+
+    /**
+     * Returns the coin with the given id.
+     *
+     * @param id coin id (e.g. bitcoin)
+     * @return the coin, or empty if the catalog has no such coin
+     */
+    public Optional<Coin> findById(String id) {
+        return Optional.ofNullable(coinsById.get(id));
+    }
+
+    /**
+     * Counts the coins whose symbol or name starts with the filter, ignoring case.
+     *
+     * @param filter prefix to match; blank matches every coin
+     * @return number of matching coins
+     */
+    public int count(String filter) {
+        var prefix = key(filter);
+        if (prefix.isEmpty()) {
+            return coins.length;
+        }
+        var count = upperBound(symbolKeys, prefix) - lowerBound(symbolKeys, prefix);
+        for (var i = lowerBound(nameKeys, prefix); i < upperBound(nameKeys, prefix); i++) {
+            if (!symbolKeys[nameOrder[i]].startsWith(prefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns a page of the coins whose symbol or name starts with the filter, ignoring case.
+     *
+     * @param filter prefix to match; blank matches every coin
+     * @param offset number of matching coins to skip
+     * @param limit  maximum number of coins to return
+     * @return the matching coins, symbol matches first
+     */
+    public List<Coin> find(String filter, int offset, int limit) {
+        var prefix = key(filter);
+        var page = new ArrayList<Coin>(Math.min(limit, coins.length));
+        if (prefix.isEmpty()) {
+            for (var i = offset; i < coins.length && page.size() < limit; i++) {
+                page.add(coins[i]);
+            }
+            return page;
+        }
+
+        var skipped = 0;
+        var symbolEnd = upperBound(symbolKeys, prefix);
+        for (var i = lowerBound(symbolKeys, prefix); i < symbolEnd && page.size() < limit; i++) {
+            if (skipped++ >= offset) {
+                page.add(coins[i]);
+            }
+        }
+        var nameEnd = upperBound(nameKeys, prefix);
+        for (var i = lowerBound(nameKeys, prefix); i < nameEnd && page.size() < limit; i++) {
+            var index = nameOrder[i];
+            if (!symbolKeys[index].startsWith(prefix) && skipped++ >= offset) {
+                page.add(coins[index]);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Returns the index of the first key not less than the prefix.
+     */
+    private static int lowerBound(String[] keys, String prefix) {
+        var low = 0;
+        var high = keys.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first key greater than every key starting with the prefix.
+     */
+    private static int upperBound(String[] keys, String prefix) {
+        return lowerBound(keys, prefix + Character.MAX_VALUE);
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "CoinCatalog[size=" + coins.length + "]";
+    }
+}
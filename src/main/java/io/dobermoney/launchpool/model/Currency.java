@@ -4,12 +4,16 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
 /**
- * Supported fiat currencies for price display.
+ * Currencies balances can be valued in. The code is the Coingecko {@code vs_currency}.
  */
 @Getter
 @RequiredArgsConstructor
 public enum Currency {
-    USD("usd");
+    USD("usd", 2),
+    EUR("eur", 2),
+    BTC("btc", 8);
 
     private final String code;
+    /** Number of decimal places shown for amounts in the currency. */
+    private final int fractionDigits;
 }
@@ -0,0 +1,20 @@
+package io.dobermoney.launchpool.model;
+
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * Coins fetched from a paginated catalog, together with the pages that could not be fetched.
+ *
+ * @param coins       coins of the pages fetched successfully, one instance per coin id
+ * @param failedPages numbers of the pages that could not be fetched
+ */
+public record FetchedCoins(Set<Coin> coins, SortedSet<Integer> failedPages) {
+
+    /**
+     * @return {@code true} if every page was fetched, so coins missing from {@link #coins()} are not listed anymore
+     */
+    public boolean isComplete() {
+        return failedPages.isEmpty();
+    }
+}
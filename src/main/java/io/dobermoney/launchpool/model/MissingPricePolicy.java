@@ -0,0 +1,58 @@
+package io.dobermoney.launchpool.model;
+
+/**
+ * How an hour without a price sample is valued. Gaps are filled from the samples around them; an hour that
+ * cannot be filled, e.g. with {@link #CARRY_FORWARD} before the first sample, is still missing.
+ */
+public enum MissingPricePolicy {
+    /** Leave the hour without a price, failing the calculation if a balance is held in it. */
+    FAIL {
+        @Override
+        public double fill(PriceSeries series, int nextIndex, long epochSecond) {
+            return Double.NaN;
+        }
+    },
+    /** Use the last sample before the hour. */
+    CARRY_FORWARD {
+        @Override
+        public double fill(PriceSeries series, int nextIndex, long epochSecond) {
+            return nextIndex > 0 ? series.priceAt(nextIndex - 1) : Double.NaN;
+        }
+    },
+    /** Interpolate linearly between the samples around the hour, or use the only one there is. */
+    LINEAR {
+        @Override
+        public double fill(PriceSeries series, int nextIndex, long epochSecond) {
+            if (nextIndex == 0 || nextIndex == series.size()) {
+                return NEAREST.fill(series, nextIndex, epochSecond);
+            }
+            var previousTime = series.timestampAt(nextIndex - 1);
+            var previousPrice = series.priceAt(nextIndex - 1);
+            var ratio = (double) (epochSecond - previousTime) / (series.timestampAt(nextIndex) - previousTime);
+            return previousPrice + (series.priceAt(nextIndex) - previousPrice) * ratio;
+        }
+    },
+    /** Use the sample closest to the start of the hour, the earlier one on a tie. */
+    NEAREST {
+        @Override
+        public double fill(PriceSeries series, int nextIndex, long epochSecond) {
+            if (nextIndex == series.size()) {
+                return CARRY_FORWARD.fill(series, nextIndex, epochSecond);
+            }
+            if (nextIndex == 0 || series.timestampAt(nextIndex) - epochSecond < epochSecond - series.timestampAt(nextIndex - 1)) {
+                return series.priceAt(nextIndex);
+            }
+            return series.priceAt(nextIndex - 1);
+        }
+    };
+
+    /**
+     * Returns the price of a gap in the series.
+     *
+     * @param series      the time-sorted series with the gap
+     * @param nextIndex   index of the first sample after the gap, or the series size if there is none
+     * @param epochSecond start of the hour to price, in seconds since epoch
+     * @return the filled price, or NaN if the gap cannot be filled
+     */
+    public abstract double fill(PriceSeries series, int nextIndex, long epochSecond);
+}
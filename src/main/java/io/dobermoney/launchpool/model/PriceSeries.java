@@ -0,0 +1,316 @@
+package io.dobermoney.launchpool.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.OptionalDouble;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, time-sorted series of price samples for a single coin.
+ * Samples are held in parallel primitive arrays (epoch seconds and prices) so that
+ * lookups are binary searches instead of scans over boxed {@link CoinPrice} records.
+ * When several samples share a timestamp, their original order is preserved.
+ * A series served from local storage while Coingecko could not be reached is marked stale: it may lack the latest
+ * samples. Sub-series and series built from a stale series are stale as well.
+ */
+public final class PriceSeries {
+    private static final PriceSeries EMPTY = new PriceSeries(new long[0], new double[0], false);
+
+    private final long[] timestamps;
+    private final double[] prices;
+    private final boolean stale;
+
+    private PriceSeries(long[] timestamps, double[] prices, boolean stale) {
+        this.timestamps = timestamps;
+        this.prices = prices;
+        this.stale = stale;
+    }
+
+    /**
+     * Returns a series without samples.
+     *
+     * @return the empty series
+     */
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a series from parallel arrays of epoch seconds and prices, sorting them by time if needed.
+     * The arrays are copied.
+     *
+     * @param timestamps sample timestamps in seconds since epoch
+     * @param prices     sample prices, aligned with {@code timestamps}
+     * @return the price series
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static PriceSeries of(long[] timestamps, double[] prices) {
+        if (timestamps.length != prices.length) {
+            throw new IllegalArgumentException("Timestamps and prices must have the same length");
+        }
+        return sorted(timestamps.clone(), prices.clone(), timestamps.length, false);
+    }
+
+    /**
+     * Creates a series from boxed price records.
+     *
+     * @param coinPrices the price records
+     * @return the price series
+     */
+    public static PriceSeries of(Collection<CoinPrice> coinPrices) {
+        var builder = builder(coinPrices.size());
+        coinPrices.forEach(coinPrice -> builder.add(coinPrice.timestamp().getEpochSecond(), coinPrice.price()));
+        return builder.build();
+    }
+
+    /**
+     * Returns a builder for appending samples one by one.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return builder(16);
+    }
+
+    /**
+     * Returns a builder sized for the expected number of samples.
+     *
+     * @param expectedSize expected number of samples
+     * @return a new builder
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * @return number of samples in the series
+     */
+    public int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * @return {@code true} if the series has no samples
+     */
+    public boolean isEmpty() {
+        return timestamps.length == 0;
+    }
+
+    /**
+     * @return {@code true} if the series was served from local storage instead of an up-to-date source
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Returns the same samples marked as stale.
+     *
+     * @return a stale series, or this series if it is already stale
+     */
+    public PriceSeries asStale() {
+        return stale ? this : new PriceSeries(timestamps, prices, true);
+    }
+
+    /**
+     * @param index sample index
+     * @return timestamp of the sample in seconds since epoch
+     */
+    public long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * @param index sample index
+     * @return price of the sample
+     */
+    public double priceAt(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Returns the index of the first sample at or after the given time.
+     *
+     * @param epochSecond time in seconds since epoch
+     * @return index of the first sample with timestamp {@code >= epochSecond}, or {@link #size()} if there is none
+     */
+    public int ceilingIndex(long epochSecond) {
+        var low = 0;
+        var high = timestamps.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (timestamps[middle] < epochSecond) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the earliest sample within {@code [fromInclusive, toExclusive)}.
+     *
+     * @param fromInclusive range start in seconds since epoch
+     * @param toExclusive   range end in seconds since epoch
+     * @return sample index, or {@code -1} if the range has no samples
+     */
+    public int firstIndexInRange(long fromInclusive, long toExclusive) {
+        var index = ceilingIndex(fromInclusive);
+        return index < timestamps.length && timestamps[index] < toExclusive ? index : -1;
+    }
+
+    /**
+     * Returns the price of the earliest sample within {@code [fromInclusive, toExclusive)}.
+     *
+     * @param fromInclusive range start in seconds since epoch
+     * @param toExclusive   range end in seconds since epoch
+     * @return the price, or empty if the range has no samples
+     */
+    public OptionalDouble findFirstPrice(long fromInclusive, long toExclusive) {
+        var index = firstIndexInRange(fromInclusive, toExclusive);
+        return index < 0 ? OptionalDouble.empty() : OptionalDouble.of(prices[index]);
+    }
+
+    /**
+     * Returns the samples within {@code [fromInclusive, toInclusive]}.
+     *
+     * @param fromInclusive range start in seconds since epoch
+     * @param toInclusive   range end in seconds since epoch
+     * @return the sub-series, or this series if it lies entirely within the range
+     */
+    public PriceSeries slice(long fromInclusive, long toInclusive) {
+        var start = ceilingIndex(fromInclusive);
+        var end = toInclusive == Long.MAX_VALUE ? timestamps.length : ceilingIndex(toInclusive + 1);
+        if (start == 0 && end == timestamps.length) {
+            return this;
+        }
+        if (start >= end) {
+            return stale ? EMPTY.asStale() : EMPTY;
+        }
+        return new PriceSeries(Arrays.copyOfRange(timestamps, start, end), Arrays.copyOfRange(prices, start, end), stale);
+    }
+
+    /**
+     * Keeps the first sample of every interval, stamped with the start of the interval.
+     * Intervals are aligned to the epoch, so an interval of one hour yields one sample per clock hour.
+     *
+     * @param intervalSeconds interval length in seconds
+     * @return the downsampled series
+     */
+    public PriceSeries firstPerInterval(long intervalSeconds) {
+        var builder = builder(timestamps.length);
+        builder.stale = stale;
+        var currentInterval = Long.MIN_VALUE;
+        for (var i = 0; i < timestamps.length; i++) {
+            var interval = Math.floorDiv(timestamps[i], intervalSeconds) * intervalSeconds;
+            if (interval != currentInterval) {
+                builder.add(interval, prices[i]);
+                currentInterval = interval;
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return "PriceSeries[size=" + timestamps.length + (stale ? ", stale" : "") + "]";
+    }
+
+    private static PriceSeries sorted(long[] timestamps, double[] prices, int size, boolean stale) {
+        if (size == 0) {
+            return stale ? EMPTY.asStale() : EMPTY;
+        }
+        if (isSorted(timestamps, size)) {
+            return new PriceSeries(trim(timestamps, size), trim(prices, size), stale);
+        }
+        var order = IntStream.range(0, size)
+                .boxed()
+                .sorted(Comparator.comparingLong(index -> timestamps[index]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        var sortedTimestamps = new long[size];
+        var sortedPrices = new double[size];
+        for (var i = 0; i < size; i++) {
+            sortedTimestamps[i] = timestamps[order[i]];
+            sortedPrices[i] = prices[order[i]];
+        }
+        return new PriceSeries(sortedTimestamps, sortedPrices, stale);
+    }
+
+    private static boolean isSorted(long[] timestamps, int size) {
+        for (var i = 1; i < size; i++) {
+            if (timestamps[i - 1] > timestamps[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] trim(long[] values, int size) {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    private static double[] trim(double[] values, int size) {
+        return values.length == size ? values : Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Accumulates samples into growable primitive arrays. Samples may be added in any order.
+     */
+    public static final class Builder {
+        private long[] timestamps;
+        private double[] prices;
+        private int size;
+        private boolean stale;
+
+        private Builder(int expectedSize) {
+            var capacity = Math.max(expectedSize, 1);
+            this.timestamps = new long[capacity];
+            this.prices = new double[capacity];
+        }
+
+        /**
+         * Appends a sample.
+         *
+         * @param epochSecond sample timestamp in seconds since epoch
+         * @param price       sample price
+         * @return this builder
+         */
+        public Builder add(long epochSecond, double price) {
+            if (size == timestamps.length) {
+                var capacity = timestamps.length * 2;
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                prices = Arrays.copyOf(prices, capacity);
+            }
+            timestamps[size] = epochSecond;
+            prices[size] = price;
+            size++;
+            return this;
+        }
+
+        /**
+         * Appends all samples of a series. The built series is stale if any appended series is.
+         *
+         * @param series the samples to append
+         * @return this builder
+         */
+        public Builder addAll(PriceSeries series) {
+            stale |= series.stale;
+            for (var i = 0; i < series.size(); i++) {
+                add(series.timestamps[i], series.prices[i]);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the series. The builder must not be used afterwards.
+         *
+         * @return the time-sorted price series
+         */
+        public PriceSeries build() {
+            return sorted(timestamps, prices, size, stale);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package io.dobermoney.launchpool.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Resolution at which balances are sampled when averaging over a launchpool period.
+ * A transaction takes effect from the start of the interval it falls into; with {@link #EVENT}
+ * it takes effect at its exact time. Prices stay hourly in every mode.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum SamplingInterval {
+    MINUTE(Duration.ofMinutes(1)),
+    FIVE_MINUTES(Duration.ofMinutes(5)),
+    HOUR(Duration.ofHours(1)),
+    /** Exact integration between transactions. */
+    EVENT(Duration.ofSeconds(1));
+
+    /** Length of an interval; the period and the transactions are aligned to multiples of it. */
+    private final Duration duration;
+}
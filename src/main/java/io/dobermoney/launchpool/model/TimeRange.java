@@ -0,0 +1,16 @@
+package io.dobermoney.launchpool.model;
+
+/**
+ * Inclusive time range expressed in seconds since epoch.
+ *
+ * @param from range start in seconds since epoch (inclusive)
+ * @param to   range end in seconds since epoch (inclusive)
+ */
+public record TimeRange(long from, long to) {
+
+    public TimeRange {
+        if (from > to) {
+            throw new IllegalArgumentException("Invalid time range " + from + " - " + to);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.dobermoney.launchpool.repository;
+
+import io.dobermoney.launchpool.entity.JpaCoin;
+
+import java.util.Collection;
+
+/**
+ * JDBC batch writes for {@link JpaCoin} rows, bypassing the persistence context.
+ */
+public interface CoinBatchRepository {
+
+    /**
+     * Inserts the coins with one batched statement.
+     *
+     * @param coins coins that are not stored yet
+     */
+    void insertAll(Collection<JpaCoin> coins);
+
+    /**
+     * Updates name, symbol and image of the coins with one batched statement.
+     *
+     * @param coins coins that are already stored
+     */
+    void updateAll(Collection<JpaCoin> coins);
+
+    /**
+     * Deletes the coins with the given ids with one batched statement.
+     *
+     * @param ids ids of the coins to delete
+     */
+    void deleteAllByIds(Collection<String> ids);
+}
@@ -0,0 +1,40 @@
+package io.dobermoney.launchpool.repository;
+
+import io.dobermoney.launchpool.entity.JpaCoin;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+
+/**
+ * {@link CoinBatchRepository} backed by {@link JdbcTemplate#batchUpdate}.
+ */
+@RequiredArgsConstructor
+class CoinBatchRepositoryImpl implements CoinBatchRepository {
+    private static final String INSERT = "INSERT INTO coin (id, name, symbol, image) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE coin SET name = ?, symbol = ?, image = ? WHERE id = ?";
+    private static final String DELETE = "DELETE FROM coin WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(Collection<JpaCoin> coins) {
+        jdbcTemplate.batchUpdate(INSERT, coins.stream()
+                .map(coin -> new Object[]{coin.getId(), coin.getName(), coin.getSymbol(), coin.getImage()})
+                .toList());
+    }
+
+    @Override
+    public void updateAll(Collection<JpaCoin> coins) {
+        jdbcTemplate.batchUpdate(UPDATE, coins.stream()
+                .map(coin -> new Object[]{coin.getName(), coin.getSymbol(), coin.getImage(), coin.getId()})
+                .toList());
+    }
+
+    @Override
+    public void deleteAllByIds(Collection<String> ids) {
+        jdbcTemplate.batchUpdate(DELETE, ids.stream()
+                .map(id -> new Object[]{id})
+                .toList());
+    }
+}
@@ -0,0 +1,44 @@
+package io.dobermoney.launchpool.repository;
+
+import io.dobermoney.launchpool.entity.JpaCoinPrice;
+import io.dobermoney.launchpool.entity.JpaCoinPriceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link JpaCoinPrice} entities.
+ */
+public interface CoinPriceRepository extends JpaRepository<JpaCoinPrice, JpaCoinPriceId> {
+
+    /**
+     * Returns the stored price samples of a coin within the range, ordered by time.
+     *
+     * @param coinId coin identifier
+     * @param from   range start in seconds since epoch (inclusive)
+     * @param to     range end in seconds since epoch (inclusive)
+     * @return price samples ordered by timestamp
+     */
+    @Query("""
+            select p from JpaCoinPrice p
+            where p.id.coinId = :coinId and p.id.epochSecond between :from and :to
+            order by p.id.epochSecond
+            """)
+    List<JpaCoinPrice> findRange(@Param("coinId") String coinId, @Param("from") long from, @Param("to") long to);
+
+    /**
+     * Returns the timestamps of stored price samples of a coin within the range.
+     *
+     * @param coinId coin identifier
+     * @param from   range start in seconds since epoch (inclusive)
+     * @param to     range end in seconds since epoch (inclusive)
+     * @return sample timestamps in seconds since epoch
+     */
+    @Query("""
+            select p.id.epochSecond from JpaCoinPrice p
+            where p.id.coinId = :coinId and p.id.epochSecond between :from and :to
+            """)
+    List<Long> findTimestamps(@Param("coinId") String coinId, @Param("from") long from, @Param("to") long to);
+}
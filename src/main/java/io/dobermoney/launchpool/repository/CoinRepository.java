@@ -6,5 +6,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 /**
  * Spring Data JPA repository for {@link JpaCoin} entities.
  */
-public interface CoinRepository extends JpaRepository<JpaCoin, String> {
+public interface CoinRepository extends JpaRepository<JpaCoin, String>, CoinBatchRepository {
 }
@@ -0,0 +1,10 @@
+package io.dobermoney.launchpool.repository;
+
+import io.dobermoney.launchpool.entity.JpaHourlyPriceCoverage;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Spring Data JPA repository for {@link JpaHourlyPriceCoverage} entities, keyed by coin id.
+ */
+public interface HourlyPriceCoverageRepository extends JpaRepository<JpaHourlyPriceCoverage, String> {
+}
@@ -0,0 +1,44 @@
+package io.dobermoney.launchpool.repository;
+
+import io.dobermoney.launchpool.entity.JpaCoinPriceId;
+import io.dobermoney.launchpool.entity.JpaHourlyPrice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link JpaHourlyPrice} entities.
+ */
+public interface HourlyPriceRepository extends JpaRepository<JpaHourlyPrice, JpaCoinPriceId> {
+
+    /**
+     * Returns the hourly prices of a coin for the hours starting within the range, ordered by time.
+     *
+     * @param coinId coin identifier
+     * @param from   range start in seconds since epoch (inclusive)
+     * @param to     range end in seconds since epoch (inclusive)
+     * @return hourly prices ordered by hour
+     */
+    @Query("""
+            select p from JpaHourlyPrice p
+            where p.id.coinId = :coinId and p.id.epochSecond between :from and :to
+            order by p.id.epochSecond
+            """)
+    List<JpaHourlyPrice> findRange(@Param("coinId") String coinId, @Param("from") long from, @Param("to") long to);
+
+    /**
+     * Returns the start times of the stored hours of a coin within the range.
+     *
+     * @param coinId coin identifier
+     * @param from   range start in seconds since epoch (inclusive)
+     * @param to     range end in seconds since epoch (inclusive)
+     * @return hour start times in seconds since epoch
+     */
+    @Query("""
+            select p.id.epochSecond from JpaHourlyPrice p
+            where p.id.coinId = :coinId and p.id.epochSecond between :from and :to
+            """)
+    List<Long> findTimestamps(@Param("coinId") String coinId, @Param("from") long from, @Param("to") long to);
+}
@@ -0,0 +1,29 @@
+package io.dobermoney.launchpool.repository;
+
+import io.dobermoney.launchpool.entity.JpaPriceCoverage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for {@link JpaPriceCoverage} entities.
+ */
+public interface PriceCoverageRepository extends JpaRepository<JpaPriceCoverage, Long> {
+
+    /**
+     * Returns the coverage ranges of a coin that overlap or touch the given range, ordered by start.
+     *
+     * @param coinId coin identifier
+     * @param from   range start in seconds since epoch (inclusive)
+     * @param to     range end in seconds since epoch (inclusive)
+     * @return overlapping coverage ranges
+     */
+    @Query("""
+            select c from JpaPriceCoverage c
+            where c.coinId = :coinId and c.toEpochSecond >= :from and c.fromEpochSecond <= :to
+            order by c.fromEpochSecond
+            """)
+    List<JpaPriceCoverage> findOverlapping(@Param("coinId") String coinId, @Param("from") long from, @Param("to") long to);
+}
@@ -2,47 +2,114 @@ package io.dobermoney.launchpool.scheduler;
 
 import io.dobermoney.launchpool.entity.JpaCoin;
 import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.FetchedCoins;
 import io.dobermoney.launchpool.repository.CoinRepository;
+import io.dobermoney.launchpool.service.CoinCatalogService;
 import io.dobermoney.launchpool.service.impl.CoingeckoCoinService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Scheduler that periodically syncs available coins from Coingecko API to the local database.
  * Runs every 10 minutes with an initial sync at startup.
+ * <p>
+ * The sync is differential: fetched coins are compared with the stored ones and only new, changed and
+ * removed rows are written, with JDBC batch statements, so readers never see an empty table.
+ * If some catalog pages could not be fetched, the fetched coins are merged into the stored ones
+ * and no coin is deleted. The coin catalog snapshot is refreshed after every sync that wrote rows.
+ * Publishes {@code coin.sync.duration} and {@code coin.sync.rows} (tagged by operation) metrics.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class CoinSyncScheduler {
+    static final String DURATION_METRIC = "coin.sync.duration";
+    static final String ROWS_METRIC = "coin.sync.rows";
+
     private final CoingeckoCoinService coingeckoCoinService;
     private final CoinRepository coinRepository;
+    private final CoinCatalogService coinCatalogService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
 
     /**
-     * Fetches coins from Coingecko and replaces all coins in the database.
+     * Fetches coins from Coingecko and applies the differences to the database.
      * Runs every 10 minutes (PT10M) with no initial delay (PT0S).
      */
     @Scheduled(fixedRateString = "PT10M", initialDelayString = "PT0S")
-    @Transactional
     public void syncCoins() {
         log.info("Syncing coins from Coingecko...");
+        var sample = Timer.start(meterRegistry);
+        var outcome = "failure";
         try {
-            Set<Coin> coins = coingeckoCoinService.readCoins();
-            var entities = coins.stream()
-                    .map(this::toEntity)
-                    .collect(Collectors.toSet());
-            coinRepository.deleteAllInBatch();
-            coinRepository.saveAll(entities);
-            log.info("Synced {} coins to database", entities.size());
+            FetchedCoins fetchedCoins = coingeckoCoinService.fetchCoins();
+            Set<Coin> coins = fetchedCoins.coins();
+            if (coins.isEmpty()) {
+                log.warn("Coingecko returned no coins, keeping stored coins");
+                outcome = "empty";
+                return;
+            }
+            var fetched = coins.stream()
+                    .collect(Collectors.toMap(Coin::getId, Function.identity(), (first, second) -> first));
+            if (!fetchedCoins.isComplete()) {
+                log.warn("Coin pages {} could not be fetched, keeping their stored coins", fetchedCoins.failedPages());
+            }
+            var diff = transactionTemplate.execute(status -> apply(fetched, fetchedCoins.isComplete()));
+            if (diff.inserts() + diff.updates() + diff.deletes() > 0) {
+                coinCatalogService.refresh();
+            }
+            meterRegistry.counter(ROWS_METRIC, "operation", "insert").increment(diff.inserts());
+            meterRegistry.counter(ROWS_METRIC, "operation", "update").increment(diff.updates());
+            meterRegistry.counter(ROWS_METRIC, "operation", "delete").increment(diff.deletes());
+            outcome = "success";
+            log.info("Synced {} coins to database: {} inserted, {} updated, {} deleted",
+                    fetched.size(), diff.inserts(), diff.updates(), diff.deletes());
         } catch (Exception e) {
             log.error("Failed to sync coins from Coingecko", e);
+        } finally {
+            sample.stop(meterRegistry.timer(DURATION_METRIC, "outcome", outcome));
+        }
+    }
+
+    private SyncDiff apply(Map<String, Coin> fetched, boolean complete) {
+        var stored = new HashMap<String, JpaCoin>();
+        coinRepository.findAll().forEach(coin -> stored.put(coin.getId(), coin));
+
+        List<JpaCoin> inserts = new ArrayList<>();
+        List<JpaCoin> updates = new ArrayList<>();
+        fetched.values().forEach(coin -> {
+            var existing = stored.remove(coin.getId());
+            if (existing == null) {
+                inserts.add(toEntity(coin));
+            } else if (!existing.hasSameContent(coin)) {
+                updates.add(toEntity(coin));
+            }
+        });
+        var deletes = complete ? stored.keySet() : Set.<String>of();
+
+        if (!inserts.isEmpty()) {
+            coinRepository.insertAll(inserts);
+        }
+        if (!updates.isEmpty()) {
+            coinRepository.updateAll(updates);
+        }
+        if (!deletes.isEmpty()) {
+            coinRepository.deleteAllByIds(deletes);
         }
+        return new SyncDiff(inserts.size(), updates.size(), deletes.size());
     }
 
     private JpaCoin toEntity(Coin coin) {
@@ -53,4 +120,7 @@ public class CoinSyncScheduler {
                 .image(coin.getImage())
                 .build();
     }
+
+    private record SyncDiff(int inserts, int updates, int deletes) {
+    }
 }
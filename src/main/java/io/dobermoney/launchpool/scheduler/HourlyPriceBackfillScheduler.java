@@ -0,0 +1,119 @@
+package io.dobermoney.launchpool.scheduler;
+
+import io.dobermoney.launchpool.config.properties.PriceBackfillProperties;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.TimeRange;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import io.dobermoney.launchpool.service.impl.CoingeckoCoinService;
+import io.dobermoney.launchpool.service.impl.HourlyPriceStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Scheduler that backfills and maintains the hourly prices of the tracked coins.
+ * <p>
+ * Each run extends the backfilled range of every tracked coin to cover the configured history up to the last
+ * sealed hour, i.e. an hour that ended at least an hour ago. Missing hours are fetched from Coingecko in chunks
+ * short enough to be served at hourly granularity, reduced to the first price of each hour and stored chunk by
+ * chunk, walking away from the backfilled range so that it never has gaps. An interrupted backfill therefore
+ * resumes where it stopped. Calculations read tracked coins from the hourly
+ * table and only reach Coingecko for hours after the backfilled range.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HourlyPriceBackfillScheduler {
+    private static final long SECONDS_PER_HOUR = Duration.ofHours(1).toSeconds();
+    /** Coingecko serves hourly prices for ranges of up to 90 days. */
+    private static final long CHUNK_SECONDS = Duration.ofDays(30).toSeconds();
+
+    private final PriceBackfillProperties properties;
+    private final CoinCatalogService coinCatalogService;
+    private final CoingeckoCoinService coingeckoCoinService;
+    private final HourlyPriceStore hourlyPriceStore;
+
+    /**
+     * Backfills the hourly prices of every tracked coin. A coin that fails is retried on the next run.
+     * Runs at the configured interval (PT15M by default), starting one minute after startup.
+     */
+    @Scheduled(fixedRateString = "${price-backfill.interval:PT15M}", initialDelayString = "PT1M")
+    public void backfill() {
+        if (properties.trackedCoins().isEmpty()) {
+            return;
+        }
+        var now = Instant.now().getEpochSecond();
+        var sealedEnd = floorHour(now) - SECONDS_PER_HOUR;
+        var historyStart = floorHour(now - properties.history().toSeconds());
+        var catalog = coinCatalogService.getCatalog();
+
+        for (var coinId : properties.trackedCoins()) {
+            var coin = catalog.findById(coinId);
+            if (coin.isEmpty()) {
+                log.warn("Tracked coin {} is not in the coin catalog, skipping hourly backfill", coinId);
+                continue;
+            }
+            try {
+                backfill(coin.get(), historyStart, sealedEnd);
+            } catch (Exception e) {
+                log.error("Failed to backfill hourly prices of {}", coinId, e);
+            }
+        }
+    }
+
+    /**
+     * Fetches the hours of {@code [start, end)} that lie outside the coin's backfilled range. Newer hours are
+     * fetched from the end of the backfilled range on, even if it ends before {@code start}, so it stays contiguous.
+     */
+    private void backfill(Coin coin, long start, long end) {
+        var coverage = hourlyPriceStore.findCoverage(coin.getId());
+        if (coverage.isEmpty()) {
+            fetchHours(coin, start, end);
+            return;
+        }
+        if (start < coverage.get().from()) {
+            fetchHoursBackwards(coin, start, coverage.get().from());
+        }
+        fetchHours(coin, coverage.get().to() + 1, end);
+    }
+
+    /**
+     * Fetches and stores the hours of {@code [from, to)} chunk by chunk, oldest first.
+     */
+    private void fetchHours(Coin coin, long from, long to) {
+        for (var chunkStart = from; chunkStart < to; chunkStart += CHUNK_SECONDS) {
+            fetchChunk(coin, new TimeRange(chunkStart, Math.min(to, chunkStart + CHUNK_SECONDS) - 1));
+        }
+    }
+
+    /**
+     * Fetches and stores the hours of {@code [from, to)} chunk by chunk, newest first, so every stored chunk
+     * adjoins the backfilled range.
+     */
+    private void fetchHoursBackwards(Coin coin, long from, long to) {
+        for (var chunkEnd = to; chunkEnd > from; chunkEnd -= CHUNK_SECONDS) {
+            fetchChunk(coin, new TimeRange(Math.max(from, chunkEnd - CHUNK_SECONDS), chunkEnd - 1));
+        }
+    }
+
+    private void fetchChunk(Coin coin, TimeRange chunk) {
+        var prices = coingeckoCoinService.readPrices(toDateTime(chunk.from()), toDateTime(chunk.to()), coin);
+        var hourly = prices.firstPerInterval(SECONDS_PER_HOUR).slice(chunk.from(), chunk.to());
+        hourlyPriceStore.write(coin.getId(), hourly, chunk);
+        log.debug("Backfilled {} hourly prices of {} for {}", hourly.size(), coin.getId(), chunk);
+    }
+
+    private static long floorHour(long epochSecond) {
+        return Math.floorDiv(epochSecond, SECONDS_PER_HOUR) * SECONDS_PER_HOUR;
+    }
+
+    private static ZonedDateTime toDateTime(long epochSecond) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,21 @@
+package io.dobermoney.launchpool.service;
+
+import io.dobermoney.launchpool.model.CoinCatalog;
+
+/**
+ * Holds the current snapshot of the available coins.
+ */
+public interface CoinCatalogService {
+
+    /**
+     * Returns the current catalog snapshot. The snapshot is immutable; later refreshes replace it.
+     *
+     * @return the current catalog
+     */
+    CoinCatalog getCatalog();
+
+    /**
+     * Reloads the catalog from its source and atomically replaces the current snapshot.
+     */
+    void refresh();
+}
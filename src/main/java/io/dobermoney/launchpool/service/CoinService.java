@@ -1,7 +1,7 @@
 package io.dobermoney.launchpool.service;
 
 import io.dobermoney.launchpool.model.Coin;
-import io.dobermoney.launchpool.model.CoinPrice;
+import io.dobermoney.launchpool.model.PriceSeries;
 
 import java.time.ZonedDateTime;
 import java.util.Set;
@@ -24,8 +24,8 @@ public interface CoinService {
      * @param from start of the time range (inclusive)
      * @param to   end of the time range (inclusive)
      * @param coin the coin to fetch prices for
-     * @return set of coin prices within the range
+     * @return time-sorted price series within the range
      */
-    Set<CoinPrice> readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin);
+    PriceSeries readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin);
 
 }
@@ -0,0 +1,23 @@
+package io.dobermoney.launchpool.service;
+
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.PriceSeries;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Service for retrieving historical rates converting USD amounts into other currencies.
+ */
+public interface ExchangeRateService {
+
+    /**
+     * Returns the units of the currency worth one USD within the specified time range.
+     *
+     * @param from     start of the time range (inclusive)
+     * @param to       end of the time range (inclusive)
+     * @param currency the currency to convert USD amounts into
+     * @return time-sorted rate series within the range
+     */
+    PriceSeries readRates(ZonedDateTime from, ZonedDateTime to, Currency currency);
+
+}
@@ -0,0 +1,92 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.archive.PriceArchive;
+import io.dobermoney.launchpool.config.properties.PriceArchiveProperties;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import io.dobermoney.launchpool.service.CoinService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Set;
+
+/**
+ * {@link CoinService} implementation that serves historical prices from the file-based {@link PriceArchive}.
+ * <p>
+ * A requested range is split into calendar months (UTC). Months that ended before the live edge are read
+ * from the archive; a month that is not archived yet is fetched from Coingecko as a whole, which yields
+ * hourly samples, and archived first. The part of the range in the current month is always fetched
+ * from Coingecko. Enabled with {@code price-archive.enabled}, in place of {@link DatabaseCoinService}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "price-archive", name = "enabled", havingValue = "true")
+public class ArchiveCoinService implements CoinService {
+    /** Prices younger than this may still change or be completed, so their months are not archived. */
+    private static final Duration LIVE_EDGE = Duration.ofHours(1);
+
+    private final PriceArchive priceArchive;
+    private final CoingeckoCoinService delegate;
+    private final CoinCatalogService coinCatalogService;
+
+    /**
+     * Creates the archive-backed service.
+     *
+     * @param properties         archive configuration
+     * @param delegate           Coingecko service for months that are not archived and for the live edge
+     * @param coinCatalogService catalog serving the available coins
+     */
+    public ArchiveCoinService(PriceArchiveProperties properties, CoingeckoCoinService delegate,
+                              CoinCatalogService coinCatalogService) {
+        this.priceArchive = new PriceArchive(properties.directory());
+        this.delegate = delegate;
+        this.coinCatalogService = coinCatalogService;
+    }
+
+    @Override
+    public Set<Coin> readCoins() {
+        return coinCatalogService.getCatalog().coins();
+    }
+
+    @Override
+    public PriceSeries readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin) {
+        var range = new TimeRange(from.toEpochSecond(), to.toEpochSecond());
+        var sealedBefore = Instant.now().minus(LIVE_EDGE).getEpochSecond();
+        var builder = PriceSeries.builder();
+
+        var month = YearMonth.from(from.withZoneSameInstant(ZoneOffset.UTC));
+        while (monthStart(month) <= range.to()) {
+            var monthEnd = monthStart(month.plusMonths(1));
+            var part = new TimeRange(Math.max(range.from(), monthStart(month)), Math.min(range.to(), monthEnd - 1));
+            if (monthEnd > sealedBefore) {
+                // The live edge reaches into this month, so nothing after it is archived either
+                builder.addAll(delegate.readPrices(toDateTime(part.from()), toDateTime(range.to()), coin));
+                break;
+            }
+            if (!priceArchive.contains(coin.getId(), month)) {
+                log.debug("Archiving {} prices for {}", coin, month);
+                var prices = delegate.readPrices(toDateTime(monthStart(month)), toDateTime(monthEnd - 1), coin);
+                priceArchive.write(coin.getId(), month, prices.slice(monthStart(month), monthEnd - 1));
+            }
+            builder.addAll(priceArchive.read(coin.getId(), month, part));
+            month = month.plusMonths(1);
+        }
+        return builder.build();
+    }
+
+    private static long monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    private static ZonedDateTime toDateTime(long epochSecond) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,188 @@
+package io.dobermoney.launchpool.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.dobermoney.launchpool.config.properties.PriceCacheProperties;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.service.CoinService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Primary {@link CoinService} that keeps recently read price series in memory in front of {@link DatabaseCoinService},
+ * or of {@link ArchiveCoinService} when the price archive is enabled.
+ * Ranges are widened to whole hours so that requests for the same coin and period share one entry,
+ * and concurrent requests for an entry that is still loading wait for the same in-flight load.
+ * Entries are bounded by their estimated size and expire after a TTL that is short for ranges touching the live edge
+ * and for stale series, so fresh prices replace them soon after Coingecko recovers.
+ * Hit, miss, load and eviction statistics are published as {@code cache.*} metrics with {@code cache=price-series}.
+ */
+@Slf4j
+@Service
+@Primary
+public class CachingCoinService implements CoinService, MeterBinder {
+    private static final long SECONDS_PER_HOUR = Duration.ofHours(1).toSeconds();
+    /** Ranges ending within this distance from now still receive new samples. */
+    private static final Duration LIVE_EDGE = Duration.ofHours(1);
+    /** Rough per-entry overhead of the cache node, key and series object in bytes. */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    /** Bytes per sample: one long timestamp and one double price. */
+    private static final int SAMPLE_BYTES = Long.BYTES + Double.BYTES;
+    private static final String CACHE_NAME = "price-series";
+
+    private final CoinService delegate;
+    private final AsyncCache<PriceKey, PriceSeries> priceCache;
+
+    /**
+     * Creates the caching service in front of the archive, if enabled, or the database.
+     *
+     * @param databaseCoinService database-backed service
+     * @param archiveCoinService  archive-backed service, available if the price archive is enabled
+     * @param properties          cache sizing and expiry configuration
+     */
+    @Autowired
+    public CachingCoinService(DatabaseCoinService databaseCoinService,
+                              ObjectProvider<ArchiveCoinService> archiveCoinService,
+                              PriceCacheProperties properties) {
+        this(selectDelegate(databaseCoinService, archiveCoinService), properties);
+    }
+
+    private static CoinService selectDelegate(DatabaseCoinService databaseCoinService,
+                                              ObjectProvider<ArchiveCoinService> archiveCoinService) {
+        CoinService archive = archiveCoinService.getIfAvailable();
+        return archive != null ? archive : databaseCoinService;
+    }
+
+    /**
+     * Creates the caching service.
+     *
+     * @param delegate   service reading prices on cache misses
+     * @param properties cache sizing and expiry configuration
+     */
+    CachingCoinService(CoinService delegate, PriceCacheProperties properties) {
+        this.delegate = delegate;
+        this.priceCache = Caffeine.newBuilder()
+                .maximumWeight(properties.maxSize().toBytes())
+                .<PriceKey, PriceSeries>weigher((key, series) -> ENTRY_OVERHEAD_BYTES + series.size() * SAMPLE_BYTES)
+                .expireAfter(new PriceExpiry(properties.historyTtl(), properties.liveEdgeTtl()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public Set<Coin> readCoins() {
+        return delegate.readCoins();
+    }
+
+    @Override
+    public PriceSeries readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin) {
+        var key = new PriceKey(
+                coin.getId(),
+                Math.floorDiv(from.toEpochSecond(), SECONDS_PER_HOUR) * SECONDS_PER_HOUR,
+                -Math.floorDiv(-to.toEpochSecond(), SECONDS_PER_HOUR) * SECONDS_PER_HOUR
+        );
+
+        var loading = new CompletableFuture<PriceSeries>();
+        var future = priceCache.get(key, (missingKey, executor) -> loading);
+        var series = future == loading ? load(key, coin, from.getZone(), loading) : await(future);
+
+        return series.slice(from.toEpochSecond(), to.toEpochSecond());
+    }
+
+    /**
+     * Returns hit, miss, load and eviction counters of the price cache.
+     *
+     * @return cache statistics snapshot
+     */
+    public CacheStats stats() {
+        return priceCache.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, priceCache, CACHE_NAME);
+    }
+
+    /**
+     * Loads the entry on the calling thread and completes the future other callers may be waiting for.
+     */
+    private PriceSeries load(PriceKey key, Coin coin, ZoneId zone, CompletableFuture<PriceSeries> loading) {
+        try {
+            var series = delegate.readPrices(
+                    ZonedDateTime.ofInstant(Instant.ofEpochSecond(key.from()), zone),
+                    ZonedDateTime.ofInstant(Instant.ofEpochSecond(key.to()), zone),
+                    coin
+            );
+            loading.complete(series);
+            return series;
+        } catch (RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for a load started by another caller. An interrupt, e.g. of a cancelled calculation, ends the wait
+     * with a {@link CancellationException} and leaves the load running for the other waiters.
+     */
+    private static PriceSeries await(CompletableFuture<PriceSeries> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for a coalesced price load");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    /**
+     * Cache key: a coin and an hour-aligned inclusive range in seconds since epoch.
+     */
+    private record PriceKey(String coinId, long from, long to) {
+    }
+
+    /**
+     * Expires entries whose range reaches the live edge, and stale entries, sooner than purely historical ones.
+     */
+    private record PriceExpiry(Duration historyTtl, Duration liveEdgeTtl) implements Expiry<PriceKey, PriceSeries> {
+
+        @Override
+        public long expireAfterCreate(PriceKey key, PriceSeries value, long currentTime) {
+            var liveEdge = Instant.now().minus(LIVE_EDGE).getEpochSecond();
+            return (key.to() >= liveEdge || value.isStale() ? liveEdgeTtl : historyTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(PriceKey key, PriceSeries value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(PriceKey key, PriceSeries value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.dobermoney.launchpool.service.impl;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-coin locks serialising the transactions that write a coin's price rows, so that two overlapping fetches
+ * cannot both find a sample missing and then insert it twice. A lock is held until the transaction completes.
+ */
+class CoinWriteLocks {
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Locks the coin for the current transaction, waiting for other transactions writing it to complete.
+     *
+     * @param coinId coin identifier
+     * @throws IllegalStateException if no transaction is active
+     */
+    void lockUntilCompletion(String coinId) {
+        var lock = locks.computeIfAbsent(coinId, id -> new ReentrantLock());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+        lock.lock();
+    }
+}
@@ -2,21 +2,36 @@ package io.dobermoney.launchpool.service.impl;
 
 import io.dobermoney.launchpool.client.CoingeckoClient;
 import io.dobermoney.launchpool.client.response.CoingeckoCoinResponse;
+import io.dobermoney.launchpool.config.properties.CoingeckoProperties;
 import io.dobermoney.launchpool.model.Coin;
-import io.dobermoney.launchpool.model.CoinPrice;
 import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.FetchedCoins;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
 import io.dobermoney.launchpool.service.CoinService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 import static io.dobermoney.launchpool.config.CoingeckoConfig.COINGECKO_RETRY_TEMPLATE_BEAN;
@@ -24,45 +39,169 @@ import static io.dobermoney.launchpool.config.CoingeckoConfig.COINGECKO_RETRY_TE
 /**
  * CoinService implementation that fetches data from the Coingecko API.
  * Uses retry logic with Retry-After header support for rate limit (429) responses.
+ * Every attempt is timed as {@code coingecko.request}, tagged by endpoint and outcome.
+ * <p>
+ * Coingecko picks the granularity of a price range from its span: 5-minutely up to a day, hourly up to 90 days
+ * and daily beyond. Longer ranges are therefore split into windows of at most {@link #MAX_HOURLY_WINDOW},
+ * fetched concurrently and merged, so prices are never coarser than hourly.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CoingeckoCoinService implements CoinService {
     private static final String ORDER = "market_cap_desc";
     private static final int PAGE_SIZE = 250;
+    static final String REQUEST_METRIC = "coingecko.request";
+    /** Longest range Coingecko still answers with hourly prices. */
+    static final Duration MAX_HOURLY_WINDOW = Duration.ofDays(90);
 
     private final CoingeckoClient coingeckoClient;
     @Qualifier(COINGECKO_RETRY_TEMPLATE_BEAN)
     private final RetryTemplate retryTemplate;
+    private final CoingeckoProperties properties;
+    private final MeterRegistry meterRegistry;
+    /** Request timers by endpoint and outcome, registered on first use. */
+    private final Map<RequestTimerKey, Timer> requestTimers = new ConcurrentHashMap<>();
 
     @Override
     public Set<Coin> readCoins() {
-        return IntStream.rangeClosed(1, 6) // 6 pages: 6 * 250 = 1500 coins
-                .mapToObj(this::readCoinsWithRetry)
-                .flatMap(Collection::stream)
-                .map(this::toCoin)
-                .collect(Collectors.toSet());
+        return fetchCoins().coins();
+    }
+
+    /**
+     * Fetches the configured number of catalog pages concurrently, each on its own virtual thread.
+     * Calls are paced by the shared Coingecko rate limiter, so the sync takes as long as the rate budget
+     * requires rather than the sum of the request latencies. A page that fails after its retries is reported
+     * in the result instead of discarding the pages fetched successfully.
+     *
+     * @return coins of the fetched pages, deduplicated by id, and the numbers of the failed pages
+     * @throws RuntimeException the failure of the first page if no page could be fetched
+     */
+    public FetchedCoins fetchCoins() {
+        var pages = new LinkedHashMap<Integer, CompletableFuture<List<CoingeckoCoinResponse>>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.rangeClosed(1, properties.catalogPages()).forEach(page -> pages.put(page,
+                    CompletableFuture.supplyAsync(() -> readCoinsWithRetry(page), executor)));
+        }
+
+        var coins = new LinkedHashMap<String, Coin>();
+        var failedPages = new TreeSet<Integer>();
+        RuntimeException failure = null;
+        for (var entry : pages.entrySet()) {
+            try {
+                entry.getValue().join().forEach(coinResponse ->
+                        coins.putIfAbsent(coinResponse.getId(), toCoin(coinResponse)));
+            } catch (CompletionException e) {
+                log.warn("Failed to fetch coins page {}", entry.getKey(), e.getCause());
+                failedPages.add(entry.getKey());
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        if (failure != null && coins.isEmpty()) {
+            throw failure;
+        }
+        return new FetchedCoins(new HashSet<>(coins.values()), failedPages);
     }
 
     @Override
-    public Set<CoinPrice> readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin) {
-        return retryTemplate.execute(context -> {
+    public PriceSeries readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin) {
+        return readPrices(from, to, coin, Currency.USD);
+    }
+
+    /**
+     * Returns historical prices of a coin in the given currency within the specified time range.
+     *
+     * @param from     start of the time range (inclusive)
+     * @param to       end of the time range (inclusive)
+     * @param coin     the coin to fetch prices for
+     * @param currency the currency the prices are quoted in
+     * @return time-sorted price series within the range
+     */
+    public PriceSeries readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin, Currency currency) {
+        var windows = planWindows(new TimeRange(from.toEpochSecond(), to.toEpochSecond()));
+        if (windows.size() == 1) {
+            return readWindow(windows.getFirst(), coin, currency);
+        }
+
+        var futures = new ArrayList<CompletableFuture<PriceSeries>>(windows.size());
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            windows.forEach(window -> futures.add(
+                    CompletableFuture.supplyAsync(() -> readWindow(window, coin, currency), executor)));
+        }
+        var prices = PriceSeries.builder();
+        for (var future : futures) {
+            try {
+                prices.addAll(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        return prices.build();
+    }
+
+    /**
+     * Splits a range into consecutive, non-overlapping windows short enough to be served with hourly prices.
+     *
+     * @param range the inclusive range to fetch
+     * @return windows covering the range, in time order
+     */
+    static List<TimeRange> planWindows(TimeRange range) {
+        var windowSeconds = MAX_HOURLY_WINDOW.toSeconds();
+        var windows = new ArrayList<TimeRange>();
+        var windowStart = range.from();
+        while (range.to() - windowStart > windowSeconds) {
+            windows.add(new TimeRange(windowStart, windowStart + windowSeconds - 1));
+            windowStart += windowSeconds;
+        }
+        windows.add(new TimeRange(windowStart, range.to()));
+        return windows;
+    }
+
+    private PriceSeries readWindow(TimeRange window, Coin coin, Currency currency) {
+        return retryTemplate.execute(context -> timed("market_chart_range", () -> {
             var response = coingeckoClient.coinsMarketChartRange(
                     coin.getId(),
-                    Currency.USD.getCode(),
-                    from.toInstant().getEpochSecond(),
-                    to.toInstant().getEpochSecond()
+                    currency.getCode(),
+                    window.from(),
+                    window.to()
             );
-            return response.getPrices()
-                    .stream()
-                    .map(data -> toCoinPrice(data, coin))
-                    .collect(Collectors.toSet());
-        });
+            return response.getPrices();
+        }));
     }
 
     private List<CoingeckoCoinResponse> readCoinsWithRetry(int page) {
-        return retryTemplate.execute(context ->
-                coingeckoClient.coinsMarkets(Currency.USD.getCode(), ORDER, PAGE_SIZE, page));
+        return retryTemplate.execute(context -> timed("markets", () ->
+                coingeckoClient.coinsMarkets(Currency.USD.getCode(), ORDER, PAGE_SIZE, page)));
+    }
+
+    /**
+     * Runs one Coingecko call and records its latency, including the wait for the rate limiter.
+     */
+    private <T> T timed(String endpoint, Supplier<T> call) {
+        var start = System.nanoTime();
+        var outcome = "failure";
+        try {
+            var result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            requestTimers.computeIfAbsent(new RequestTimerKey(endpoint, outcome), this::requestTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer requestTimer(RequestTimerKey key) {
+        return Timer.builder(REQUEST_METRIC)
+                .description("Latency of a single Coingecko API call")
+                .tag("endpoint", key.endpoint())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     private Coin toCoin(CoingeckoCoinResponse coinResponse) {
@@ -74,12 +213,6 @@ public class CoingeckoCoinService implements CoinService {
                 .build();
     }
 
-    private CoinPrice toCoinPrice(List<Double> data, Coin coin) {
-        return new CoinPrice(
-                data.get(1),
-                Instant.ofEpochMilli(data.get(0).longValue()),
-                coin
-        );
+    private record RequestTimerKey(String endpoint, String outcome) {
     }
-
 }
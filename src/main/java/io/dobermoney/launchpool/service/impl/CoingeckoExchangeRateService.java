@@ -0,0 +1,100 @@
+package io.dobermoney.launchpool.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.dobermoney.launchpool.config.properties.PriceCacheProperties;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.service.ExchangeRateService;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * {@link ExchangeRateService} deriving USD conversion rates from the Coingecko prices of a reference coin.
+ * The rate of an hour is the reference coin's price in the currency divided by its price in USD, so a currency
+ * costs one extra price series per period, whatever the number of coins valued with it.
+ * Rate series are cached per currency and hour-aligned range, with the same expiry as the price cache.
+ */
+@Service
+public class CoingeckoExchangeRateService implements ExchangeRateService {
+    private static final long SECONDS_PER_HOUR = Duration.ofHours(1).toSeconds();
+    private static final Coin REFERENCE_COIN = Coin.builder().id("bitcoin").name("Bitcoin").symbol("btc").build();
+    private static final int MAX_CACHED_SERIES = 1024;
+
+    private final CoingeckoCoinService coingeckoCoinService;
+    private final Cache<RateKey, PriceSeries> rateCache;
+
+    /**
+     * Creates the exchange rate service.
+     *
+     * @param coingeckoCoinService service fetching reference coin prices from Coingecko
+     * @param properties           expiry configuration shared with the price cache
+     */
+    public CoingeckoExchangeRateService(CoingeckoCoinService coingeckoCoinService, PriceCacheProperties properties) {
+        this.coingeckoCoinService = coingeckoCoinService;
+        this.rateCache = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_SERIES)
+                .expireAfter(Expiry.<RateKey, PriceSeries>creating((key, series) ->
+                        key.to() >= Instant.now().minus(Duration.ofHours(1)).getEpochSecond() ?
+                                properties.liveEdgeTtl() : properties.historyTtl()))
+                .build();
+    }
+
+    @Override
+    public PriceSeries readRates(ZonedDateTime from, ZonedDateTime to, Currency currency) {
+        if (currency == Currency.USD) {
+            throw new IllegalArgumentException("USD amounts need no conversion");
+        }
+        var key = new RateKey(
+                currency,
+                Math.floorDiv(from.toEpochSecond(), SECONDS_PER_HOUR) * SECONDS_PER_HOUR,
+                -Math.floorDiv(-to.toEpochSecond(), SECONDS_PER_HOUR) * SECONDS_PER_HOUR
+        );
+        return rateCache.get(key, this::load).slice(from.toEpochSecond(), to.toEpochSecond());
+    }
+
+    private PriceSeries load(RateKey key) {
+        var from = ZonedDateTime.ofInstant(Instant.ofEpochSecond(key.from()), ZoneOffset.UTC);
+        var to = ZonedDateTime.ofInstant(Instant.ofEpochSecond(key.to()), ZoneOffset.UTC);
+        return divide(
+                coingeckoCoinService.readPrices(from, to, REFERENCE_COIN, key.currency()),
+                coingeckoCoinService.readPrices(from, to, REFERENCE_COIN, Currency.USD)
+        );
+    }
+
+    /**
+     * Divides the first sample of every clock hour of the quote series by the first sample of the same hour
+     * of the USD series. Hours missing from either series are left out.
+     */
+    static PriceSeries divide(PriceSeries quotePrices, PriceSeries usdPrices) {
+        var rates = PriceSeries.builder(Math.min(quotePrices.size(), usdPrices.size()));
+        var usdCursor = 0;
+        var lastHour = Long.MIN_VALUE;
+        for (var i = 0; i < quotePrices.size(); i++) {
+            var hour = Math.floorDiv(quotePrices.timestampAt(i), SECONDS_PER_HOUR);
+            if (hour == lastHour) {
+                continue;
+            }
+            lastHour = hour;
+            while (usdCursor < usdPrices.size() && Math.floorDiv(usdPrices.timestampAt(usdCursor), SECONDS_PER_HOUR) < hour) {
+                usdCursor++;
+            }
+            if (usdCursor < usdPrices.size() && Math.floorDiv(usdPrices.timestampAt(usdCursor), SECONDS_PER_HOUR) == hour) {
+                rates.add(quotePrices.timestampAt(i), quotePrices.priceAt(i) / usdPrices.priceAt(usdCursor));
+            }
+        }
+        return rates.build();
+    }
+
+    /**
+     * Cache key: a currency and an hour-aligned inclusive range in seconds since epoch.
+     */
+    private record RateKey(Currency currency, long from, long to) {
+    }
+}
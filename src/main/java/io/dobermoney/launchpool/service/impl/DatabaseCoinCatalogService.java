@@ -0,0 +1,60 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.entity.JpaCoin;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.CoinCatalog;
+import io.dobermoney.launchpool.repository.CoinRepository;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * CoinCatalogService that builds the catalog snapshot from the coins stored in the database.
+ * The snapshot is loaded on first use and refreshed after each coin sync.
+ * Coins whose stored data did not change keep their instance across refreshes,
+ * so transactions created from an older snapshot still refer to the same coin.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DatabaseCoinCatalogService implements CoinCatalogService {
+    private final CoinRepository coinRepository;
+    private volatile CoinCatalog catalog;
+
+    @Override
+    public CoinCatalog getCatalog() {
+        var current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    refresh();
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    @Override
+    public synchronized void refresh() {
+        var previous = catalog == null ? CoinCatalog.empty() : catalog;
+        var coins = coinRepository.findAll().stream()
+                .map(entity -> previous.findById(entity.getId())
+                        .filter(entity::hasSameContent)
+                        .orElseGet(() -> toCoin(entity)))
+                .toList();
+        catalog = CoinCatalog.of(coins);
+        log.debug("Coin catalog refreshed with {} coins", coins.size());
+    }
+
+    private Coin toCoin(JpaCoin entity) {
+        return Coin.builder()
+                .id(entity.getId())
+                .name(entity.getName())
+                .symbol(entity.getSymbol())
+                .image(entity.getImage())
+                .build();
+    }
+}
@@ -1,47 +1,97 @@
 package io.dobermoney.launchpool.service.impl;
 
-import io.dobermoney.launchpool.entity.JpaCoin;
+import io.dobermoney.launchpool.client.CoingeckoUnavailableException;
 import io.dobermoney.launchpool.model.Coin;
-import io.dobermoney.launchpool.model.CoinPrice;
-import io.dobermoney.launchpool.repository.CoinRepository;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+import io.dobermoney.launchpool.service.CoinCatalogService;
 import io.dobermoney.launchpool.service.CoinService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.annotation.Primary;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
- * Primary {@link CoinService} implementation that serves coins from the database
- * and delegates price lookups to Coingecko. Coins are synced from Coingecko periodically.
+ * {@link CoinService} implementation that serves coins and historical prices from the database.
+ * Coins are synced from Coingecko periodically and served from the in-memory catalog snapshot.
+ * Prices are served from the local price history. Only the sub-ranges that were never fetched are requested from
+ * Coingecko and written back.
+ * Tracked coins are served from the hourly price table maintained by the hourly price backfill.
+ * While the Coingecko circuit breaker is open, the stored prices are served as they are, marked as stale.
  */
+@Slf4j
 @Service
-@Primary
 @RequiredArgsConstructor
 public class DatabaseCoinService implements CoinService {
-    private final CoinRepository coinRepository;
+    /** Prices younger than this may still change or be completed, so their ranges are not marked as fetched. */
+    private static final Duration LIVE_EDGE = Duration.ofHours(1);
+
+    private final CoinCatalogService coinCatalogService;
+    private final PriceHistoryStore priceHistoryStore;
+    private final HourlyPriceStore hourlyPriceStore;
     private final CoingeckoCoinService delegate;
 
     @Override
     public Set<Coin> readCoins() {
-        return coinRepository.findAll().stream()
-                .map(this::toCoin)
-                .collect(Collectors.toSet());
+        return coinCatalogService.getCatalog().coins();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the range starts within the hourly backfilled range of the coin, the backfilled hours are served from
+     * the hourly price table, one price per hour stamped with the start of the hour; only the remainder
+     * after the backfilled range is read from the price history.
+     */
     @Override
-    public Set<CoinPrice> readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin) {
-        return delegate.readPrices(from, to, coin);
-    }
+    public PriceSeries readPrices(ZonedDateTime from, ZonedDateTime to, Coin coin) {
+        var range = new TimeRange(from.toEpochSecond(), to.toEpochSecond());
+        var hourlyCoverage = hourlyPriceStore.findCoverage(coin.getId())
+                .filter(coverage -> coverage.from() <= range.from() && range.from() <= coverage.to());
+        if (hourlyCoverage.isEmpty()) {
+            return readPriceHistory(range, from.getZone(), coin);
+        }
 
-    private Coin toCoin(JpaCoin entity) {
-        return Coin.builder()
-                .id(entity.getId())
-                .name(entity.getName())
-                .symbol(entity.getSymbol())
-                .image(entity.getImage())
+        var coveredTo = hourlyCoverage.get().to();
+        var hourly = hourlyPriceStore.read(coin.getId(), new TimeRange(range.from(), Math.min(range.to(), coveredTo)));
+        if (range.to() <= coveredTo) {
+            return hourly;
+        }
+        var remainder = readPriceHistory(new TimeRange(coveredTo + 1, range.to()), from.getZone(), coin);
+        return PriceSeries.builder(hourly.size() + remainder.size())
+                .addAll(hourly)
+                .addAll(remainder)
                 .build();
     }
+
+    /**
+     * Reads the range from the price history, fetching the sub-ranges that were never fetched.
+     * If Coingecko is unavailable, the stored part of the range is returned as a stale series.
+     */
+    private PriceSeries readPriceHistory(TimeRange range, ZoneId zone, Coin coin) {
+        var sealedBefore = Instant.now().minus(LIVE_EDGE).getEpochSecond();
+        for (var missing : priceHistoryStore.findMissingRanges(coin.getId(), range)) {
+            log.debug("Fetching {} prices for missing range {}", coin, missing);
+            PriceSeries prices;
+            try {
+                prices = delegate.readPrices(toDateTime(missing.from(), zone), toDateTime(missing.to(), zone), coin);
+            } catch (CoingeckoUnavailableException e) {
+                log.warn("Serving stored {} prices for {} as stale: {}", coin, range, e.getMessage());
+                return priceHistoryStore.read(coin.getId(), range).asStale();
+            }
+            var covered = missing.from() < sealedBefore ?
+                    new TimeRange(missing.from(), Math.min(missing.to(), sealedBefore)) : null;
+            priceHistoryStore.write(coin.getId(), prices, covered);
+        }
+        return priceHistoryStore.read(coin.getId(), range);
+    }
+
+    private static ZonedDateTime toDateTime(long epochSecond, ZoneId zone) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+    }
 }
@@ -0,0 +1,99 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.entity.JpaCoinPriceId;
+import io.dobermoney.launchpool.entity.JpaHourlyPrice;
+import io.dobermoney.launchpool.entity.JpaHourlyPriceCoverage;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+import io.dobermoney.launchpool.repository.HourlyPriceCoverageRepository;
+import io.dobermoney.launchpool.repository.HourlyPriceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Optional;
+
+/**
+ * Local store of pre-aggregated hourly coin prices, maintained by the hourly price backfill.
+ * Each coin has a single contiguous range of backfilled hours; within it, an hour without a row had no price.
+ */
+@Component
+@RequiredArgsConstructor
+public class HourlyPriceStore {
+    private final HourlyPriceRepository hourlyPriceRepository;
+    private final HourlyPriceCoverageRepository hourlyPriceCoverageRepository;
+    private final CoinWriteLocks writeLocks = new CoinWriteLocks();
+
+    /**
+     * Returns the range of hours backfilled for the coin.
+     *
+     * @param coinId coin identifier
+     * @return backfilled range, from the start of its first hour to the end of its last hour (inclusive),
+     * or empty if nothing is backfilled yet
+     */
+    @Transactional(readOnly = true)
+    public Optional<TimeRange> findCoverage(String coinId) {
+        return hourlyPriceCoverageRepository.findById(coinId)
+                .map(coverage -> new TimeRange(coverage.getFromEpochSecond(), coverage.getToEpochSecond()));
+    }
+
+    /**
+     * Reads the hourly prices of a coin for the hours starting within the range.
+     *
+     * @param coinId coin identifier
+     * @param range  requested range
+     * @return prices stamped with the start of their hour
+     */
+    @Transactional(readOnly = true)
+    public PriceSeries read(String coinId, TimeRange range) {
+        var entities = hourlyPriceRepository.findRange(coinId, range.from(), range.to());
+        var builder = PriceSeries.builder(entities.size());
+        entities.forEach(entity -> builder.add(entity.getId().getEpochSecond(), entity.getPrice()));
+        return builder.build();
+    }
+
+    /**
+     * Stores hourly prices that are not stored yet and extends the backfilled range of the coin.
+     *
+     * @param coinId  coin identifier
+     * @param prices  prices stamped with the start of their hour
+     * @param covered range of hours the prices completely cover; must overlap or adjoin the backfilled range
+     * @throws IllegalArgumentException if the covered range would leave a gap in the backfilled range
+     */
+    @Transactional
+    public void write(String coinId, PriceSeries prices, TimeRange covered) {
+        writeLocks.lockUntilCompletion(coinId);
+        var existingCoverage = hourlyPriceCoverageRepository.findById(coinId);
+        if (existingCoverage.isPresent() && (covered.to() + 1 < existingCoverage.get().getFromEpochSecond()
+                || covered.from() > existingCoverage.get().getToEpochSecond() + 1)) {
+            throw new IllegalArgumentException("Hourly prices of " + coinId + " for " + covered
+                    + " do not adjoin the backfilled range");
+        }
+        if (!prices.isEmpty()) {
+            var existing = new HashSet<>(hourlyPriceRepository.findTimestamps(
+                    coinId, prices.timestampAt(0), prices.timestampAt(prices.size() - 1)));
+            var entities = new ArrayList<JpaHourlyPrice>();
+            for (var i = 0; i < prices.size(); i++) {
+                if (existing.add(prices.timestampAt(i))) {
+                    entities.add(JpaHourlyPrice.builder()
+                            .id(new JpaCoinPriceId(coinId, prices.timestampAt(i)))
+                            .price(prices.priceAt(i))
+                            .build());
+                }
+            }
+            hourlyPriceRepository.saveAll(entities);
+        }
+
+        var coverage = existingCoverage
+                .orElseGet(() -> JpaHourlyPriceCoverage.builder()
+                        .coinId(coinId)
+                        .fromEpochSecond(covered.from())
+                        .toEpochSecond(covered.to())
+                        .build());
+        coverage.setFromEpochSecond(Math.min(coverage.getFromEpochSecond(), covered.from()));
+        coverage.setToEpochSecond(Math.max(coverage.getToEpochSecond(), covered.to()));
+        hourlyPriceCoverageRepository.save(coverage);
+    }
+}
@@ -0,0 +1,116 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.entity.JpaCoinPrice;
+import io.dobermoney.launchpool.entity.JpaCoinPriceId;
+import io.dobermoney.launchpool.entity.JpaPriceCoverage;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+import io.dobermoney.launchpool.repository.CoinPriceRepository;
+import io.dobermoney.launchpool.repository.PriceCoverageRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Local store of historical coin prices backed by the application database.
+ * Besides the price samples it records which time ranges have been fetched completely,
+ * so that callers only need to fetch the ranges that are still missing.
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceHistoryStore {
+    private final CoinPriceRepository coinPriceRepository;
+    private final PriceCoverageRepository priceCoverageRepository;
+    private final CoinWriteLocks writeLocks = new CoinWriteLocks();
+
+    /**
+     * Returns the parts of the range that are not covered by previously stored fetches.
+     *
+     * @param coinId coin identifier
+     * @param range  requested range
+     * @return uncovered sub-ranges in ascending order
+     */
+    @Transactional(readOnly = true)
+    public List<TimeRange> findMissingRanges(String coinId, TimeRange range) {
+        var missing = new ArrayList<TimeRange>();
+        var cursor = range.from();
+        for (var coverage : priceCoverageRepository.findOverlapping(coinId, range.from(), range.to())) {
+            if (coverage.getFromEpochSecond() > cursor) {
+                missing.add(new TimeRange(cursor, coverage.getFromEpochSecond()));
+            }
+            cursor = Math.max(cursor, coverage.getToEpochSecond());
+        }
+        if (cursor < range.to()) {
+            missing.add(new TimeRange(cursor, range.to()));
+        }
+        return missing;
+    }
+
+    /**
+     * Reads the stored prices of a coin within the range.
+     *
+     * @param coinId coin identifier
+     * @param range  requested range
+     * @return time-sorted stored prices
+     */
+    @Transactional(readOnly = true)
+    public PriceSeries read(String coinId, TimeRange range) {
+        var entities = coinPriceRepository.findRange(coinId, range.from(), range.to());
+        var builder = PriceSeries.builder(entities.size());
+        entities.forEach(entity -> builder.add(entity.getId().getEpochSecond(), entity.getPrice()));
+        return builder.build();
+    }
+
+    /**
+     * Stores fetched prices that are not stored yet and, if given, marks a range as completely fetched.
+     *
+     * @param coinId  coin identifier
+     * @param prices  fetched prices
+     * @param covered range the prices completely cover, or {@code null} if the fetch must not be trusted
+     *                as complete (e.g. it reaches the live edge where new samples still appear)
+     */
+    @Transactional
+    public void write(String coinId, PriceSeries prices, TimeRange covered) {
+        writeLocks.lockUntilCompletion(coinId);
+        if (!prices.isEmpty()) {
+            var existing = new HashSet<>(coinPriceRepository.findTimestamps(
+                    coinId, prices.timestampAt(0), prices.timestampAt(prices.size() - 1)));
+            var entities = new ArrayList<JpaCoinPrice>();
+            for (var i = 0; i < prices.size(); i++) {
+                if (existing.add(prices.timestampAt(i))) {
+                    entities.add(JpaCoinPrice.builder()
+                            .id(new JpaCoinPriceId(coinId, prices.timestampAt(i)))
+                            .price(prices.priceAt(i))
+                            .build());
+                }
+            }
+            coinPriceRepository.saveAll(entities);
+        }
+        if (covered != null) {
+            addCoverage(coinId, covered);
+        }
+    }
+
+    /**
+     * Merges the range with the overlapping or adjacent coverage rows into a single row.
+     */
+    private void addCoverage(String coinId, TimeRange covered) {
+        var overlapping = priceCoverageRepository.findOverlapping(coinId, covered.from(), covered.to());
+        var from = covered.from();
+        var to = covered.to();
+        for (var coverage : overlapping) {
+            from = Math.min(from, coverage.getFromEpochSecond());
+            to = Math.max(to, coverage.getToEpochSecond());
+        }
+        priceCoverageRepository.deleteAllInBatch(overlapping);
+        priceCoverageRepository.save(JpaPriceCoverage.builder()
+                .coinId(coinId)
+                .fromEpochSecond(from)
+                .toEpochSecond(to)
+                .build());
+    }
+}
@@ -1,20 +1,31 @@
 package io.dobermoney.launchpool.view;
 
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.datetimepicker.DateTimePicker;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.router.Route;
+import io.dobermoney.launchpool.calculator.AverageBalanceCalculationSession;
 import io.dobermoney.launchpool.calculator.AverageBalanceCalculator;
+import io.dobermoney.launchpool.calculator.CalculationProgressListener;
+import io.dobermoney.launchpool.calculator.CalculationSettings;
 import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceResult;
 import io.dobermoney.launchpool.component.CoinComponent;
 import io.dobermoney.launchpool.component.TransactionDialog;
-import io.dobermoney.launchpool.model.Coin;
 import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.MissingPricePolicy;
+import io.dobermoney.launchpool.model.SamplingInterval;
 import io.dobermoney.launchpool.model.Transaction;
-import io.dobermoney.launchpool.service.CoinService;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 import java.time.Duration;
 import java.time.LocalDate;
@@ -22,31 +33,58 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static io.dobermoney.launchpool.config.CalculationConfig.CALCULATION_EXECUTOR_BEAN;
 
 /**
  * View for calculating average balance over a launchpool period.
  * Allows users to define the period, add transactions, and compute the result.
+ * After the first calculation, transaction edits update the result incrementally until the period changes.
+ * Calculations and transaction edits that may need to fetch prices run on a bounded executor; their progress
+ * and result are pushed to the browser, and they can be cancelled.
  */
 @Route(value = "average-balance", layout = MainLayout.class)
 public class AverageBalanceView extends VerticalLayout {
     private final DateTimePicker startPicker = new DateTimePicker("Launchpool Start");
     private final DateTimePicker endPicker = new DateTimePicker("Launchpool End");
+    private final Select<SamplingInterval> samplingIntervalSelect = new Select<>();
+    private final Select<Currency> currencySelect = new Select<>();
+    private final Select<MissingPricePolicy> missingPricePolicySelect = new Select<>();
     private final Button calculateButton = new Button("Calculate");
+    private final Button cancelButton = new Button("Cancel");
     private final Button addTransactionButton = new Button("Add Transaction");
     private final Grid<Transaction> grid = new Grid<>(Transaction.class, false);
     private final H3 result = new H3("Average Balance: -");
+    private final ProgressBar progressBar = new ProgressBar();
+    private final Span progressText = new Span();
     private final List<Transaction> transactions = new ArrayList<>();
+    private final CoinCatalogService coinCatalogService;
     private final AverageBalanceCalculator averageBalanceCalculator;
+    private final ExecutorService calculationExecutor;
+    private AverageBalanceCalculationSession session;
+    private PushedProgress sessionProgress;
+    private Future<?> runningCalculation;
+    /** Incremented whenever a calculation starts or is cancelled, so that callbacks of stale ones are ignored. */
+    private int calculationGeneration;
 
     /**
      * Creates the average balance view with date pickers, transaction grid, and calculation controls.
      *
-     * @param coinService              service for loading available coins
+     * @param coinCatalogService       catalog of the available coins
      * @param averageBalanceCalculator calculator for computing average balance
+     * @param calculationExecutor      bounded executor running calculations off the request thread
      */
-    public AverageBalanceView(CoinService coinService, AverageBalanceCalculator averageBalanceCalculator) {
+    public AverageBalanceView(CoinCatalogService coinCatalogService,
+                              AverageBalanceCalculator averageBalanceCalculator,
+                              @Qualifier(CALCULATION_EXECUTOR_BEAN) ExecutorService calculationExecutor) {
+        this.coinCatalogService = coinCatalogService;
         this.averageBalanceCalculator = averageBalanceCalculator;
+        this.calculationExecutor = calculationExecutor;
 
         startPicker.setDatePlaceholder(LocalDate.now().toString());
         startPicker.setLocale(Locale.UK);
@@ -55,22 +93,44 @@ public class AverageBalanceView extends VerticalLayout {
         startPicker.setStep(Duration.ofMinutes(1));
         endPicker.setStep(Duration.ofMinutes(1));
 
-        var buttonsLayout = new HorizontalLayout(Alignment.END, addTransactionButton, calculateButton);
-        var topLayout = new HorizontalLayout(startPicker, endPicker, buttonsLayout);
-        add(topLayout);
+        cancelButton.setVisible(false);
+        samplingIntervalSelect.setLabel("Sampling");
+        samplingIntervalSelect.setItems(SamplingInterval.values());
+        samplingIntervalSelect.setItemLabelGenerator(samplingInterval -> switch (samplingInterval) {
+            case MINUTE -> "1 minute";
+            case FIVE_MINUTES -> "5 minutes";
+            case HOUR -> "1 hour";
+            case EVENT -> "Exact";
+        });
+        samplingIntervalSelect.setValue(SamplingInterval.HOUR);
+        currencySelect.setLabel("Currency");
+        currencySelect.setItems(Currency.values());
+        currencySelect.setValue(Currency.USD);
+        missingPricePolicySelect.setLabel("Missing prices");
+        missingPricePolicySelect.setItems(MissingPricePolicy.values());
+        missingPricePolicySelect.setItemLabelGenerator(missingPricePolicy -> switch (missingPricePolicy) {
+            case FAIL -> "Fail";
+            case CARRY_FORWARD -> "Carry forward";
+            case LINEAR -> "Interpolate";
+            case NEAREST -> "Nearest";
+        });
+        missingPricePolicySelect.setValue(MissingPricePolicy.FAIL);
 
-        var coins = coinService.readCoins();
-        System.out.println("Size: " + coins.size());
+        var buttonsLayout = new HorizontalLayout(Alignment.END, addTransactionButton, calculateButton, cancelButton);
+        var topLayout = new HorizontalLayout(startPicker, endPicker, samplingIntervalSelect, currencySelect,
+                missingPricePolicySelect, buttonsLayout);
+        add(topLayout);
 
         grid.addColumn(transaction -> transaction.getDateTime().toString()).setHeader("Date & Time");
         grid.addColumn(Transaction::getType).setHeader("Transaction Type");
         grid.addColumn(Transaction::getAmount).setHeader("Amount");
         grid.addComponentColumn(transaction -> new CoinComponent(transaction.getCoin())).setHeader("Coin");
         grid.addComponentColumn(transaction -> {
-            var editButton = new Button("Edit", e -> openEditDialog(transaction, coins));
+            var editButton = new Button("Edit", e -> openEditDialog(transaction));
             var deleteButton = new Button("Delete", e -> {
                 transactions.remove(transaction);
                 refreshGrid();
+                updateSession(calculationSession -> calculationSession.remove(transaction));
             });
             return new HorizontalLayout(editButton, deleteButton);
         }).setHeader("Actions");
@@ -82,8 +142,14 @@ public class AverageBalanceView extends VerticalLayout {
 
         add(result);
 
+        progressBar.setVisible(false);
+        progressText.setVisible(false);
+        add(progressBar, progressText);
+
         calculateButton.addClickListener(e -> calculate());
-        addTransactionButton.addClickListener(e -> openAddDialog(coins));
+        cancelButton.addClickListener(e -> cancelCalculation());
+        addTransactionButton.addClickListener(e -> openAddDialog());
+        addDetachListener(e -> cancelCalculation());
 
         setSizeFull();
     }
@@ -96,26 +162,164 @@ public class AverageBalanceView extends VerticalLayout {
         var request = AverageBalanceCalculationRequest.builder()
                 .from(startPicker.getValue().atZone(ZoneId.systemDefault()))
                 .to(endPicker.getValue().atZone(ZoneId.systemDefault()))
-                .currency(Currency.USD)
+                .currency(currencySelect.getValue())
+                .samplingInterval(samplingIntervalSelect.getValue())
+                .missingPricePolicy(missingPricePolicySelect.getValue())
                 .transactions(transactions)
                 .build();
-        var averageBalance = averageBalanceCalculator.calculate(request);
-        result.setText("Average Balance: %.2f %s".formatted(averageBalance, Currency.USD));
+        var settings = CalculationSettings.of(request);
+        if (session != null && session.getFrom().equals(request.getFrom()) && session.getTo().equals(request.getTo())
+                && session.getSettings().equals(settings)) {
+            showResult();
+            return;
+        }
+        session = null;
+
+        var progress = new PushedProgress(UI.getCurrent());
+        var newSession = averageBalanceCalculator.openSession(request.getFrom(), request.getTo(), settings, progress);
+        var snapshot = List.copyOf(request.getTransactions());
+        runCalculation(newSession, progress, calculationSession -> calculationSession.addAll(snapshot));
+    }
+
+    /**
+     * Applies a transaction change to the current calculation session, if any, and refreshes the result.
+     */
+    private void updateSession(Consumer<AverageBalanceCalculationSession> change) {
+        if (session != null) {
+            runCalculation(session, sessionProgress, change);
+        }
+    }
+
+    /**
+     * Applies the work to the session on the calculation executor and shows the session's result once it is done.
+     * The session becomes the current one if the work succeeds. Otherwise, it is dropped, so the next calculation
+     * starts from scratch.
+     */
+    private void runCalculation(AverageBalanceCalculationSession calculationSession, PushedProgress progress,
+                                Consumer<AverageBalanceCalculationSession> work) {
+        var ui = UI.getCurrent();
+        var generation = ++calculationGeneration;
+        progress.track(generation);
+        try {
+            runningCalculation = calculationExecutor.submit(() -> {
+                try {
+                    work.accept(calculationSession);
+                    var calculationResult = calculationSession.result(false);
+                    accessIfCurrent(ui, generation, () -> {
+                        session = calculationSession;
+                        sessionProgress = progress;
+                        showResult(calculationResult);
+                    });
+                } catch (CancellationException e) {
+                    accessIfCurrent(ui, generation, () -> {
+                        session = null;
+                        Notification.show("Calculation cancelled");
+                    });
+                } catch (RuntimeException e) {
+                    accessIfCurrent(ui, generation, () -> {
+                        session = null;
+                        Notification.show(e.getMessage());
+                    });
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            session = null;
+            Notification.show("Too many calculations in progress, try again later");
+            return;
+        }
+        startCalculation();
+    }
+
+    /**
+     * Finishes the calculation of the given generation on the UI thread and runs the action,
+     * unless the calculation has been cancelled or replaced in the meantime.
+     */
+    private void accessIfCurrent(UI ui, int generation, Runnable action) {
+        ui.access(() -> {
+            if (generation != calculationGeneration) {
+                return;
+            }
+            finishCalculation();
+            action.run();
+        });
+    }
+
+    /**
+     * Locks the inputs the running calculation depends on and shows its progress.
+     */
+    private void startCalculation() {
+        setInputsEnabled(false);
+        cancelButton.setVisible(true);
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(true);
+        progressText.setText("Waiting for a free calculation slot");
+        progressText.setVisible(true);
+    }
+
+    private void finishCalculation() {
+        runningCalculation = null;
+        setInputsEnabled(true);
+        cancelButton.setVisible(false);
+        progressBar.setVisible(false);
+        progressText.setVisible(false);
+    }
+
+    /**
+     * Interrupts the running calculation, if any, together with its outstanding price fetches.
+     * The session it worked on may be left half-updated, so it is dropped.
+     */
+    private void cancelCalculation() {
+        if (runningCalculation != null) {
+            calculationGeneration++;
+            session = null;
+            runningCalculation.cancel(true);
+            finishCalculation();
+        }
+    }
+
+    private void setInputsEnabled(boolean enabled) {
+        startPicker.setEnabled(enabled);
+        endPicker.setEnabled(enabled);
+        samplingIntervalSelect.setEnabled(enabled);
+        currencySelect.setEnabled(enabled);
+        missingPricePolicySelect.setEnabled(enabled);
+        calculateButton.setEnabled(enabled);
+        addTransactionButton.setEnabled(enabled);
+        grid.setEnabled(enabled);
     }
 
+    private void showResult() {
+        showResult(session.result(false));
+    }
 
-    private void openAddDialog(Set<Coin> coins) {
-        var dialog = new TransactionDialog(coins);
+    private void showResult(AverageBalanceResult calculationResult) {
+        var currency = session.getSettings().currency();
+        var amountFormat = "%." + currency.getFractionDigits() + "f";
+        var text = ("Average Balance: " + amountFormat + " %s").formatted(calculationResult.getAverageBalance(), currency);
+        var filledHours = calculationResult.getFilledHours().size();
+        if (filledHours > 0) {
+            text += " (%d %s with filled prices)".formatted(filledHours, filledHours == 1 ? "hour" : "hours");
+        }
+        if (calculationResult.isStalePrices()) {
+            text += " (stale prices, Coingecko is unavailable)";
+        }
+        result.setText(text);
+    }
+
+
+    private void openAddDialog() {
+        var dialog = new TransactionDialog(coinCatalogService);
         dialog.setOnSaveAction(() -> {
             var dialogTransaction = dialog.getTransaction();
             transactions.add(dialogTransaction);
             refreshGrid();
+            updateSession(calculationSession -> calculationSession.add(dialogTransaction));
         });
         dialog.open();
     }
 
-    private void openEditDialog(Transaction transaction, Set<Coin> coins) {
-        var dialog = new TransactionDialog(transaction, coins);
+    private void openEditDialog(Transaction transaction) {
+        var dialog = new TransactionDialog(transaction, coinCatalogService);
         dialog.setOnSaveAction(() -> {
             var dialogTransaction = dialog.getTransaction();
             transaction.setAmount(dialogTransaction.getAmount());
@@ -124,8 +328,46 @@ public class AverageBalanceView extends VerticalLayout {
             transaction.setDateTime(dialogTransaction.getDateTime());
 
             refreshGrid();
+            updateSession(calculationSession -> calculationSession.update(transaction));
         });
         dialog.open();
     }
 
+    /**
+     * Pushes the progress of the background calculations on a session to the browser.
+     */
+    private class PushedProgress implements CalculationProgressListener {
+        private final UI ui;
+        /** Generation of the calculation currently running on the session. */
+        private volatile int generation;
+
+        PushedProgress(UI ui) {
+            this.ui = ui;
+        }
+
+        void track(int generation) {
+            this.generation = generation;
+        }
+
+        @Override
+        public void coinsFetched(int fetched, int total) {
+            show("Fetched prices of %d of %d coins".formatted(fetched, total), (double) fetched / total);
+        }
+
+        @Override
+        public void hoursProcessed(long processed, long total) {
+            show("Processed %d of %d hours".formatted(processed, total), (double) processed / total);
+        }
+
+        private void show(String text, double value) {
+            ui.access(() -> {
+                if (generation != calculationGeneration) {
+                    return;
+                }
+                progressBar.setIndeterminate(false);
+                progressBar.setValue(value);
+                progressText.setText(text);
+            });
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package io.dobermoney.launchpool.archive;
+
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link PriceArchive} and its {@link PriceArchiveCodec} file format.
+ */
+class PriceArchiveTest {
+    private static final YearMonth MONTH = YearMonth.of(2024, 1);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void write_thenRead_returnsIdenticalSamples() {
+        var builder = PriceSeries.builder();
+        var timestamp = 1704067200L;
+        var price = 42000.0;
+        for (var i = 0; i < 744; i++) {
+            // mostly hourly with jitter and an occasional gap, prices with small random-looking moves
+            timestamp += i % 100 == 99 ? 7200 : 3600 + (i % 7) - 3;
+            price = i % 5 == 0 ? price : price * (1 + ((i * 37) % 11 - 5) / 1000.0);
+            builder.add(timestamp, price);
+        }
+        var series = builder.build();
+        var archive = new PriceArchive(directory);
+
+        archive.write("bitcoin", MONTH, series);
+        var read = archive.read("bitcoin", MONTH, new TimeRange(Long.MIN_VALUE, Long.MAX_VALUE));
+
+        assertThat(archive.contains("bitcoin", MONTH)).isTrue();
+        assertThat(read.size()).isEqualTo(series.size());
+        for (var i = 0; i < series.size(); i++) {
+            assertThat(read.timestampAt(i)).isEqualTo(series.timestampAt(i));
+            assertThat(read.priceAt(i)).isEqualTo(series.priceAt(i));
+        }
+    }
+
+    @Test
+    void read_returnsOnlySamplesWithinRange() {
+        var series = PriceSeries.of(new long[]{3600, 7200, 10800, 14400}, new double[]{1.0, 1.0, 2.5, 2.0});
+        var archive = new PriceArchive(directory);
+        archive.write("bitcoin", MONTH, series);
+
+        var read = archive.read("bitcoin", MONTH, new TimeRange(7200, 10800));
+
+        assertThat(read.size()).isEqualTo(2);
+        assertThat(read.priceAt(0)).isEqualTo(1.0);
+        assertThat(read.priceAt(1)).isEqualTo(2.5);
+        assertThat(archive.read("bitcoin", MONTH.plusMonths(1), new TimeRange(0, 20000)).isEmpty()).isTrue();
+    }
+
+    @Test
+    void write_compressesRegularHourlySamples() throws Exception {
+        var builder = PriceSeries.builder();
+        for (var i = 0; i < 744; i++) {
+            builder.add(1704067200L + i * 3600L, 1.0 + (i % 24) * 0.25);
+        }
+        new PriceArchive(directory).write("bitcoin", MONTH, builder.build());
+
+        var size = Files.size(directory.resolve("bitcoin").resolve(MONTH + ".lpa"));
+
+        assertThat(size).isLessThan(744L * (Long.BYTES + Double.BYTES) / 4);
+    }
+
+    @Test
+    void rejectsCoinIdsThatEscapeTheDirectory() {
+        var archive = new PriceArchive(directory);
+
+        assertThatThrownBy(() -> archive.contains("../bitcoin", MONTH))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
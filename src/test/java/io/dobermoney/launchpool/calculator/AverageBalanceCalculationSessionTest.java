@@ -0,0 +1,226 @@
+package io.dobermoney.launchpool.calculator;
+
+import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.MissingPricePolicy;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.SamplingInterval;
+import io.dobermoney.launchpool.model.Transaction;
+import io.dobermoney.launchpool.model.TransactionType;
+import io.dobermoney.launchpool.service.CoinService;
+import io.dobermoney.launchpool.service.ExchangeRateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link AverageBalanceCalculationSession}.
+ * Every incremental result is compared with a full recalculation of the same transactions.
+ */
+@ExtendWith(MockitoExtension.class)
+class AverageBalanceCalculationSessionTest {
+
+    private static final Coin BTC = Coin.builder().id("bitcoin").name("Bitcoin").symbol("btc").build();
+    private static final Coin ETH = Coin.builder().id("ethereum").name("Ethereum").symbol("eth").build();
+
+    private static final ZonedDateTime FROM = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+    private static final ZonedDateTime TO = ZonedDateTime.parse("2024-01-01T06:00:00Z");
+
+    @Mock
+    private CoinService coinService;
+
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    private AverageBalanceCalculator calculator;
+
+    @BeforeEach
+    void setUp() {
+        calculator = new AverageBalanceCalculator(coinService, exchangeRateService, Runnable::run, new SimpleMeterRegistry());
+        when(coinService.readPrices(any(), any(), eq(BTC))).thenReturn(hourlyPrices(10000.0, 1000.0));
+    }
+
+    @Test
+    void session_matchesFullRecalculationAfterEachChange() {
+        when(coinService.readPrices(any(), any(), eq(ETH))).thenReturn(hourlyPrices(100.0, 10.0));
+        var transactions = new ArrayList<Transaction>();
+        var session = calculator.openSession(FROM, TO);
+
+        var btcDeposit = transaction(BTC, TransactionType.DEPOSIT, 2.0, 30);
+        transactions.add(btcDeposit);
+        session.add(btcDeposit);
+        assertThat(session.average()).isEqualTo(recalculate(transactions));
+
+        var ethDeposit = transaction(ETH, TransactionType.DEPOSIT, 10.0, 150);
+        transactions.add(ethDeposit);
+        session.add(ethDeposit);
+        assertThat(session.average()).isEqualTo(recalculate(transactions));
+
+        var btcWithdraw = transaction(BTC, TransactionType.WITHDRAW, 0.5, 200);
+        transactions.add(btcWithdraw);
+        session.add(btcWithdraw);
+        assertThat(session.average()).isEqualTo(recalculate(transactions));
+
+        btcDeposit.setDateTime(FROM.plusMinutes(250));
+        btcDeposit.setAmount(3.0);
+        session.update(btcDeposit);
+        assertThat(session.average()).isEqualTo(recalculate(transactions));
+
+        ethDeposit.setCoin(BTC);
+        session.update(ethDeposit);
+        assertThat(session.average()).isEqualTo(recalculate(transactions));
+
+        transactions.remove(btcWithdraw);
+        session.remove(btcWithdraw);
+        assertThat(session.average()).isEqualTo(recalculate(transactions));
+    }
+
+    @Test
+    void session_fetchesPricesOncePerCoin() {
+        var session = calculator.openSession(FROM, TO);
+
+        session.add(transaction(BTC, TransactionType.DEPOSIT, 1.0, 10));
+        session.add(transaction(BTC, TransactionType.DEPOSIT, 1.0, 70));
+        session.add(transaction(BTC, TransactionType.WITHDRAW, 1.0, 130));
+
+        verify(coinService, times(1)).readPrices(any(), any(), eq(BTC));
+        // Hours 1-6: 1, 2, 1, 1, 1, 1 BTC at 10000, 11000, ... 15000
+        assertThat(session.average()).isEqualTo((10000.0 + 22000.0 + 12000.0 + 13000.0 + 14000.0 + 15000.0) / 6);
+    }
+
+    @Test
+    void session_reportsProgress() {
+        when(coinService.readPrices(any(), any(), eq(ETH))).thenReturn(hourlyPrices(100.0, 10.0));
+        var fetched = new ArrayList<String>();
+        var processed = new ArrayList<String>();
+        var session = calculator.openSession(FROM, TO, CalculationSettings.DEFAULT, new CalculationProgressListener() {
+            @Override
+            public void coinsFetched(int fetchedCoins, int total) {
+                fetched.add(fetchedCoins + "/" + total);
+            }
+
+            @Override
+            public void hoursProcessed(long processedHours, long total) {
+                processed.add(processedHours + "/" + total);
+            }
+        });
+
+        session.addAll(List.of(
+                transaction(BTC, TransactionType.DEPOSIT, 1.0, 10),
+                transaction(ETH, TransactionType.DEPOSIT, 1.0, 130)));
+
+        assertThat(fetched).containsExactly("1/2", "2/2");
+        // BTC is swept from hour 0, ETH from hour 2
+        assertThat(processed).containsExactly("6/10", "10/10");
+    }
+
+    @Test
+    void session_readsConversionRatesWhenComputingTheResult() {
+        when(exchangeRateService.readRates(any(), any(), eq(Currency.EUR))).thenReturn(hourlyPrices(0.5, 0.0));
+        var session = calculator.openSession(FROM, TO,
+                new CalculationSettings(SamplingInterval.HOUR, Currency.EUR, MissingPricePolicy.FAIL),
+                CalculationProgressListener.NONE);
+        session.add(transaction(BTC, TransactionType.DEPOSIT, 1.0, 10));
+        verifyNoInteractions(exchangeRateService);
+
+        // 1 BTC at 10000, 11000, ... 15000, at 0.5 EUR per USD
+        assertThat(session.average()).isEqualTo(0.5 * (10000.0 + 11000.0 + 12000.0 + 13000.0 + 14000.0 + 15000.0) / 6);
+        session.average();
+        verify(exchangeRateService, times(1)).readRates(any(), any(), eq(Currency.EUR));
+    }
+
+    @Test
+    void session_cancelsWhenThreadIsInterrupted() {
+        var session = calculator.openSession(FROM, TO);
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> session.add(transaction(BTC, TransactionType.DEPOSIT, 1.0, 10)))
+                    .isInstanceOf(CancellationException.class);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void session_stopsParallelSweepWhenThreadIsInterrupted() {
+        var caller = Thread.currentThread();
+        var sweptCoins = new AtomicInteger();
+        var session = new AverageBalanceCalculationSession(FROM, TO, CalculationSettings.DEFAULT, null,
+                // Every coin is priced like BTC
+                coins -> coins.stream().collect(Collectors.toMap(Function.identity(),
+                        coin -> coinService.readPrices(FROM, TO, BTC))),
+                new CalculationProgressListener() {
+                    @Override
+                    public void hoursProcessed(long processedHours, long total) {
+                        if (sweptCoins.incrementAndGet() == 1) {
+                            caller.interrupt();
+                        }
+                        try {
+                            Thread.sleep(100);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                }, 1);
+        var transactions = IntStream.range(0, 64)
+                .mapToObj(i -> transaction(Coin.builder().id("coin-" + i).name("Coin " + i).symbol("c" + i).build(),
+                        TransactionType.DEPOSIT, 1.0, 10))
+                .toList();
+
+        try {
+            assertThatThrownBy(() -> session.addAll(transactions)).isInstanceOf(CancellationException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(sweptCoins.get()).isLessThan(transactions.size());
+    }
+
+    private double recalculate(List<Transaction> transactions) {
+        return calculator.calculate(AverageBalanceCalculationRequest.builder()
+                .from(FROM)
+                .to(TO)
+                .transactions(transactions)
+                .build()).getAverageBalance();
+    }
+
+    private static PriceSeries hourlyPrices(double first, double step) {
+        var builder = PriceSeries.builder();
+        for (var hour = 0; hour < 6; hour++) {
+            builder.add(FROM.plusHours(hour).plusMinutes(5).toEpochSecond(), first + hour * step);
+        }
+        return builder.build();
+    }
+
+    private static Transaction transaction(Coin coin, TransactionType type, double amount, int minutesFromStart) {
+        return Transaction.builder()
+                .dateTime(FROM.plusMinutes(minutesFromStart))
+                .type(type)
+                .coin(coin)
+                .amount(amount)
+                .build();
+    }
+}
@@ -1,11 +1,19 @@
 package io.dobermoney.launchpool.calculator;
 
 import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceBatchResult;
+import io.dobermoney.launchpool.calculator.result.FilledHour;
 import io.dobermoney.launchpool.model.Coin;
 import io.dobermoney.launchpool.model.CoinPrice;
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.MissingPricePolicy;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.SamplingInterval;
 import io.dobermoney.launchpool.model.Transaction;
 import io.dobermoney.launchpool.model.TransactionType;
 import io.dobermoney.launchpool.service.CoinService;
+import io.dobermoney.launchpool.service.ExchangeRateService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,13 +22,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -36,14 +49,26 @@ class AverageBalanceCalculatorTest {
             .image("https://example.com/btc.png")
             .build();
 
+    private static final Coin ETH = Coin.builder()
+            .id("ethereum")
+            .name("Ethereum")
+            .symbol("eth")
+            .image("https://example.com/eth.png")
+            .build();
+
     @Mock
     private CoinService coinService;
 
+    @Mock
+    private ExchangeRateService exchangeRateService;
+
+    private SimpleMeterRegistry meterRegistry;
     private AverageBalanceCalculator calculator;
 
     @BeforeEach
     void setUp() {
-        calculator = new AverageBalanceCalculator(coinService);
+        meterRegistry = new SimpleMeterRegistry();
+        calculator = new AverageBalanceCalculator(coinService, exchangeRateService, Runnable::run, meterRegistry);
     }
 
     @Test
@@ -97,7 +122,7 @@ class AverageBalanceCalculatorTest {
                 .build();
 
         when(coinService.readPrices(any(), any(), eq(BTC)))
-                .thenReturn(Set.of()); // no prices
+                .thenReturn(PriceSeries.empty()); // no prices
 
         var request = AverageBalanceCalculationRequest.builder()
                 .from(from)
@@ -121,7 +146,7 @@ class AverageBalanceCalculatorTest {
                 .transactions(List.of())
                 .build();
 
-        var result = calculator.calculate(request);
+        var result = calculator.calculate(request).getAverageBalance();
 
         assertThat(result).isZero();
     }
@@ -141,7 +166,7 @@ class AverageBalanceCalculatorTest {
                 .build();
 
         when(coinService.readPrices(any(), any(), eq(BTC)))
-                .thenReturn(Set.of(price));
+                .thenReturn(PriceSeries.of(List.of(price)));
 
         var request = AverageBalanceCalculationRequest.builder()
                 .from(from)
@@ -149,7 +174,7 @@ class AverageBalanceCalculatorTest {
                 .transactions(List.of(deposit))
                 .build();
 
-        var result = calculator.calculate(request);
+        var result = calculator.calculate(request).getAverageBalance();
 
         assertThat(result).isEqualTo(10000.0); // 1 BTC * 10000
     }
@@ -175,7 +200,7 @@ class AverageBalanceCalculatorTest {
                 .build();
 
         when(coinService.readPrices(any(), any(), eq(BTC)))
-                .thenReturn(Set.of(price));
+                .thenReturn(PriceSeries.of(List.of(price)));
 
         var request = AverageBalanceCalculationRequest.builder()
                 .from(from)
@@ -183,7 +208,7 @@ class AverageBalanceCalculatorTest {
                 .transactions(List.of(deposit, withdraw))
                 .build();
 
-        var result = calculator.calculate(request);
+        var result = calculator.calculate(request).getAverageBalance();
 
         assertThat(result).isEqualTo(15000.0); // (2 - 0.5) BTC * 10000
     }
@@ -203,7 +228,7 @@ class AverageBalanceCalculatorTest {
                 .build();
 
         when(coinService.readPrices(any(), any(), eq(BTC)))
-                .thenReturn(Set.of(price1, price2));
+                .thenReturn(PriceSeries.of(List.of(price1, price2)));
 
         var request = AverageBalanceCalculationRequest.builder()
                 .from(from)
@@ -211,7 +236,7 @@ class AverageBalanceCalculatorTest {
                 .transactions(List.of(deposit))
                 .build();
 
-        var result = calculator.calculate(request);
+        var result = calculator.calculate(request).getAverageBalance();
 
         // Hour 1: 1 BTC * 10000 = 10000
         // Hour 2: 1 BTC * 20000 = 20000
@@ -235,7 +260,7 @@ class AverageBalanceCalculatorTest {
                 .build();
 
         when(coinService.readPrices(any(), any(), eq(BTC)))
-                .thenReturn(Set.of(price1, price2, price3));
+                .thenReturn(PriceSeries.of(List.of(price1, price2, price3)));
 
         var request = AverageBalanceCalculationRequest.builder()
                 .from(from)
@@ -243,7 +268,7 @@ class AverageBalanceCalculatorTest {
                 .transactions(List.of(deposit))
                 .build();
 
-        var result = calculator.calculate(request);
+        var result = calculator.calculate(request).getAverageBalance();
 
         // Hour 1: 0 BTC * 10000 = 0
         // Hour 2: 1 BTC * 20000 = 20000
@@ -251,4 +276,509 @@ class AverageBalanceCalculatorTest {
         // Average: (0 + 20000 + 30000) / 3 = 16666.666...
         assertThat(result).isEqualTo(50000.0 / 3);
     }
+
+    @Test
+    void calculate_unsortedTransactionsAcrossCoins() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var to = ZonedDateTime.parse("2024-01-01T03:00:00Z");
+
+        var btcWithdraw = Transaction.builder()
+                .dateTime(from.plusHours(2).plusMinutes(15))
+                .type(TransactionType.WITHDRAW)
+                .coin(BTC)
+                .amount(1.0)
+                .build();
+        var ethDeposit = Transaction.builder()
+                .dateTime(from.plusHours(1).plusMinutes(5))
+                .type(TransactionType.DEPOSIT)
+                .coin(ETH)
+                .amount(10.0)
+                .build();
+        var btcDeposit = Transaction.builder()
+                .dateTime(from.plusMinutes(20))
+                .type(TransactionType.DEPOSIT)
+                .coin(BTC)
+                .amount(2.0)
+                .build();
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(
+                        new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC),
+                        new CoinPrice(20000.0, Instant.parse("2024-01-01T01:30:00Z"), BTC),
+                        new CoinPrice(30000.0, Instant.parse("2024-01-01T02:30:00Z"), BTC))));
+        when(coinService.readPrices(any(), any(), eq(ETH)))
+                .thenReturn(PriceSeries.of(List.of(
+                        new CoinPrice(100.0, Instant.parse("2024-01-01T01:10:00Z"), ETH),
+                        new CoinPrice(200.0, Instant.parse("2024-01-01T02:10:00Z"), ETH))));
+
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(to)
+                .transactions(List.of(btcWithdraw, ethDeposit, btcDeposit))
+                .build();
+
+        var result = calculator.calculate(request).getAverageBalance();
+
+        // Hour 1: 2 BTC * 10000 = 20000
+        // Hour 2: 2 BTC * 20000 + 10 ETH * 100 = 41000
+        // Hour 3: 1 BTC * 30000 + 10 ETH * 200 = 32000
+        assertThat(result).isEqualTo(93000.0 / 3);
+    }
+
+    @Test
+    void calculate_ignoresTransactionsBeforePeriod() {
+        var from = ZonedDateTime.parse("2024-01-01T01:00:00Z");
+        var to = ZonedDateTime.parse("2024-01-01T02:00:00Z");
+        var price = new CoinPrice(10000.0, Instant.parse("2024-01-01T01:30:00Z"), BTC);
+
+        var earlyDeposit = Transaction.builder()
+                .dateTime(from.minusMinutes(30))
+                .type(TransactionType.DEPOSIT)
+                .coin(BTC)
+                .amount(5.0)
+                .build();
+        var deposit = Transaction.builder()
+                .dateTime(from.plusMinutes(10))
+                .type(TransactionType.DEPOSIT)
+                .coin(BTC)
+                .amount(1.0)
+                .build();
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price)));
+
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(to)
+                .transactions(List.of(deposit, earlyDeposit))
+                .build();
+
+        var result = calculator.calculate(request).getAverageBalance();
+
+        assertThat(result).isEqualTo(10000.0);
+    }
+
+    @Test
+    void calculateAll_fetchesSharedCoinOnceOverOverlappingPeriods() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var price1 = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC);
+        var price2 = new CoinPrice(20000.0, Instant.parse("2024-01-01T01:30:00Z"), BTC);
+
+        when(coinService.readPrices(from.minusHours(1), from.plusHours(3), BTC))
+                .thenReturn(PriceSeries.of(List.of(price1, price2)));
+
+        var deposit = Transaction.builder()
+                .dateTime(from.plusMinutes(30))
+                .type(TransactionType.DEPOSIT)
+                .coin(BTC)
+                .amount(1.0)
+                .build();
+        var firstHour = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(1))
+                .transactions(List.of(deposit))
+                .build();
+        var twoHours = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(2))
+                .transactions(List.of(deposit))
+                .build();
+
+        var results = calculator.calculateAll(List.of(firstHour, twoHours)).toList();
+
+        assertThat(results).extracting(AverageBalanceBatchResult::averageBalance).containsExactly(10000.0, 15000.0);
+        verify(coinService, times(1)).readPrices(any(), any(), eq(BTC));
+    }
+
+    @Test
+    void calculateAll_fetchesDisjointPeriodsSeparately() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var later = from.plusDays(10);
+        when(coinService.readPrices(from.minusHours(1), from.plusHours(2), BTC))
+                .thenReturn(PriceSeries.of(List.of(new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC))));
+        when(coinService.readPrices(later.minusHours(1), later.plusHours(2), BTC))
+                .thenReturn(PriceSeries.of(List.of(new CoinPrice(20000.0, Instant.parse("2024-01-11T00:30:00Z"), BTC))));
+
+        var results = calculator.calculateAll(List.of(
+                AverageBalanceCalculationRequest.builder()
+                        .from(from)
+                        .to(from.plusHours(1))
+                        .transactions(List.of(Transaction.builder()
+                                .dateTime(from)
+                                .type(TransactionType.DEPOSIT)
+                                .coin(BTC)
+                                .amount(1.0)
+                                .build()))
+                        .build(),
+                AverageBalanceCalculationRequest.builder()
+                        .from(later)
+                        .to(later.plusHours(1))
+                        .transactions(List.of(Transaction.builder()
+                                .dateTime(later)
+                                .type(TransactionType.DEPOSIT)
+                                .coin(BTC)
+                                .amount(1.0)
+                                .build()))
+                        .build())).toList();
+
+        assertThat(results).extracting(AverageBalanceBatchResult::averageBalance).containsExactly(10000.0, 20000.0);
+        verify(coinService, times(2)).readPrices(any(), any(), eq(BTC));
+    }
+
+    @Test
+    void calculateAll_reportsFailuresPerRequest() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var price = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC);
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price)));
+
+        var invalid = AverageBalanceCalculationRequest.builder()
+                .from(from.plusHours(1))
+                .to(from)
+                .transactions(List.of())
+                .build();
+        var valid = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(1))
+                .transactions(List.of(Transaction.builder()
+                        .dateTime(from)
+                        .type(TransactionType.DEPOSIT)
+                        .coin(BTC)
+                        .amount(2.0)
+                        .build()))
+                .build();
+
+        var results = calculator.calculateAll(List.of(invalid, valid)).toList();
+
+        assertThat(results).containsExactly(
+                AverageBalanceBatchResult.failure(0, "Invalid period is provided"),
+                AverageBalanceBatchResult.success(1, 20000.0));
+    }
+
+    @Test
+    void calculate_returnsBreakdownOnlyWhenRequested() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var to = ZonedDateTime.parse("2024-01-01T02:00:00Z");
+        var price1 = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC);
+        var price2 = new CoinPrice(20000.0, Instant.parse("2024-01-01T01:30:00Z"), BTC);
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price1, price2)));
+
+        var deposit = Transaction.builder()
+                .dateTime(from.plusMinutes(30))
+                .type(TransactionType.DEPOSIT)
+                .coin(BTC)
+                .amount(1.0)
+                .build();
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(to)
+                .transactions(List.of(deposit));
+
+        var withoutBreakdown = calculator.calculate(request.build());
+        var withBreakdown = calculator.calculate(request.includeBreakdown(true).build());
+
+        assertThat(withoutBreakdown.getBreakdown()).isEmpty();
+        var breakdown = withBreakdown.getBreakdown().orElseThrow();
+        assertThat(withBreakdown.getAverageBalance()).isEqualTo(15000.0);
+        assertThat(breakdown.getCoins()).containsExactly(BTC);
+        assertThat(breakdown.getHours()).isEqualTo(2);
+        assertThat(breakdown.hourStart(1)).isEqualTo(from.plusHours(1));
+        assertThat(breakdown.getBalances()[0]).containsExactly(1.0, 1.0);
+        assertThat(breakdown.getUsdBalances()[0]).containsExactly(10000.0, 20000.0);
+        assertThat(breakdown.totalUsdBalance(1)).isEqualTo(20000.0);
+        assertThat(breakdown.getCurrency()).isEqualTo(Currency.USD);
+        assertThat(breakdown.totalBalance(1)).isEqualTo(20000.0);
+    }
+
+    @Test
+    void calculate_recordsMetrics() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var price = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC);
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price)));
+
+        calculator.calculate(AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(1))
+                .transactions(List.of(Transaction.builder()
+                        .dateTime(from)
+                        .type(TransactionType.DEPOSIT)
+                        .coin(BTC)
+                        .amount(1.0)
+                        .build()))
+                .build());
+        assertThatThrownBy(() -> calculator.calculate(AverageBalanceCalculationRequest.builder()
+                .from(from.plusHours(1))
+                .to(from)
+                .transactions(List.of())
+                .build()));
+
+        assertThat(meterRegistry.get(AverageBalanceCalculator.DURATION_METRIC).tag("outcome", "success").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(AverageBalanceCalculator.DURATION_METRIC).tag("outcome", "failure").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(AverageBalanceCalculator.HOURS_METRIC).summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get(AverageBalanceCalculator.PRICE_FETCH_METRIC).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void calculate_parallelAndSequentialResultsAreIdentical() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var hours = 3000;
+        var random = new Random(7);
+        var coins = new ArrayList<Coin>();
+        var prices = new HashMap<Coin, PriceSeries>();
+        for (var i = 0; i < 8; i++) {
+            var coin = Coin.builder().id("coin-" + i).name("Coin " + i).symbol("c" + i).build();
+            coins.add(coin);
+            var series = PriceSeries.builder(hours + 2);
+            for (var hour = -1; hour <= hours; hour++) {
+                series.add(from.plusHours(hour).plusMinutes(5).toEpochSecond(), random.nextDouble() * 1000);
+            }
+            prices.put(coin, series.build());
+        }
+        var transactions = new ArrayList<Transaction>();
+        for (var i = 0; i < 500; i++) {
+            transactions.add(Transaction.builder()
+                    .dateTime(from.plusMinutes(random.nextInt(hours * 60)))
+                    .type(random.nextInt(4) == 0 ? TransactionType.WITHDRAW : TransactionType.DEPOSIT)
+                    .coin(coins.get(random.nextInt(coins.size())))
+                    .amount(random.nextDouble() * 10)
+                    .build());
+        }
+        when(coinService.readPrices(any(), any(), any()))
+                .thenAnswer(invocation -> prices.get(invocation.<Coin>getArgument(2)));
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(hours))
+                .transactions(transactions)
+                .build();
+
+        var parallelCalculator = new AverageBalanceCalculator(coinService, exchangeRateService, Runnable::run, meterRegistry, 0);
+
+        assertThat(parallelCalculator.calculate(request).getAverageBalance())
+                .isEqualTo(calculator.calculate(request).getAverageBalance());
+    }
+
+    @Test
+    void calculate_samplesDepositFromStartOfItsInterval() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var price1 = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:05:00Z"), BTC);
+        var price2 = new CoinPrice(20000.0, Instant.parse("2024-01-01T01:05:00Z"), BTC);
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price1, price2)));
+
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(2))
+                .transactions(List.of(Transaction.builder()
+                        .dateTime(from.plusMinutes(30).plusSeconds(40))
+                        .type(TransactionType.DEPOSIT)
+                        .coin(BTC)
+                        .amount(1.0)
+                        .build()));
+
+        // Held for the whole first hour
+        assertThat(calculator.calculate(request.samplingInterval(SamplingInterval.HOUR).build()).getAverageBalance())
+                .isEqualTo((10000.0 + 20000.0) / 2);
+        // Held from 00:30 on
+        assertThat(calculator.calculate(request.samplingInterval(SamplingInterval.MINUTE).build()).getAverageBalance())
+                .isEqualTo((5000.0 + 20000.0) / 2);
+        assertThat(calculator.calculate(request.samplingInterval(SamplingInterval.FIVE_MINUTES).build()).getAverageBalance())
+                .isEqualTo((5000.0 + 20000.0) / 2);
+        // Held from 00:30:40 on
+        assertThat(calculator.calculate(request.samplingInterval(SamplingInterval.EVENT).build()).getAverageBalance())
+                .isCloseTo((10000.0 * 1760 / 3600 + 20000.0) / 2, within(1e-9));
+    }
+
+    @Test
+    void calculate_weightsPartialHoursWithFineSampling() {
+        var from = ZonedDateTime.parse("2024-01-01T00:30:00Z");
+        var to = ZonedDateTime.parse("2024-01-01T01:30:00Z");
+        var price1 = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:05:00Z"), BTC);
+        var price2 = new CoinPrice(20000.0, Instant.parse("2024-01-01T01:05:00Z"), BTC);
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price1, price2)));
+
+        var deposit = Transaction.builder()
+                .dateTime(from.minusMinutes(20))
+                .type(TransactionType.DEPOSIT)
+                .coin(BTC)
+                .amount(1.0)
+                .build();
+        var withdraw = Transaction.builder()
+                .dateTime(from.plusMinutes(45))
+                .type(TransactionType.WITHDRAW)
+                .coin(BTC)
+                .amount(1.0)
+                .build();
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(to)
+                .samplingInterval(SamplingInterval.MINUTE)
+                .transactions(List.of(deposit, withdraw))
+                .includeBreakdown(true)
+                .build();
+
+        var result = calculator.calculate(request);
+
+        // 1 BTC at 10000 over 00:30-01:00, then 1 BTC at 20000 over 01:00-01:15, nothing over 01:15-01:30
+        assertThat(result.getAverageBalance()).isEqualTo((10000.0 * 30 + 20000.0 * 15) / 60);
+        assertThat(result.getBreakdown().orElseThrow().getBalances()[0]).containsExactly(1.0, 0.5);
+    }
+
+    @Test
+    void calculate_convertsToRequestedCurrency() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var price1 = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC);
+        var price2 = new CoinPrice(20000.0, Instant.parse("2024-01-01T01:30:00Z"), BTC);
+        var rates = PriceSeries.of(
+                new long[]{from.plusMinutes(10).toEpochSecond(), from.plusMinutes(70).toEpochSecond()},
+                new double[]{0.5, 0.25});
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price1, price2)));
+        when(exchangeRateService.readRates(any(), any(), eq(Currency.EUR))).thenReturn(rates);
+
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(2))
+                .currency(Currency.EUR)
+                .transactions(List.of(Transaction.builder()
+                        .dateTime(from)
+                        .type(TransactionType.DEPOSIT)
+                        .coin(BTC)
+                        .amount(1.0)
+                        .build()))
+                .includeBreakdown(true)
+                .build();
+
+        var result = calculator.calculate(request);
+
+        // Hour 1: 10000 USD at 0.5 EUR/USD, hour 2: 20000 USD at 0.25 EUR/USD
+        assertThat(result.getAverageBalance()).isEqualTo((5000.0 + 5000.0) / 2);
+        var breakdown = result.getBreakdown().orElseThrow();
+        assertThat(breakdown.getCurrency()).isEqualTo(Currency.EUR);
+        assertThat(breakdown.getRates()).containsExactly(0.5, 0.25);
+        assertThat(breakdown.totalUsdBalance(0)).isEqualTo(10000.0);
+        assertThat(breakdown.totalBalance(0)).isEqualTo(5000.0);
+        assertThat(breakdown.totalBalance(1)).isEqualTo(5000.0);
+    }
+
+    @Test
+    void calculateAll_fetchesRatesOncePerCurrency() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var price = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC);
+        var rates = PriceSeries.of(new long[]{from.plusMinutes(10).toEpochSecond()}, new double[]{0.5});
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price)));
+        when(exchangeRateService.readRates(any(), any(), eq(Currency.EUR))).thenReturn(rates);
+
+        var request = AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(1))
+                .currency(Currency.EUR)
+                .transactions(List.of(Transaction.builder()
+                        .dateTime(from)
+                        .type(TransactionType.DEPOSIT)
+                        .coin(BTC)
+                        .amount(1.0)
+                        .build()))
+                .build();
+
+        var results = calculator.calculateAll(List.of(request, request)).toList();
+
+        assertThat(results).containsExactly(
+                AverageBalanceBatchResult.success(0, 5000.0),
+                AverageBalanceBatchResult.success(1, 5000.0));
+        verify(exchangeRateService, times(1)).readRates(any(), any(), eq(Currency.EUR));
+    }
+
+    @Test
+    void calculate_fillsMissingPricesByPolicy() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var prices = PriceSeries.of(
+                new long[]{from.plusMinutes(30).toEpochSecond(), from.plusMinutes(190).toEpochSecond()},
+                new double[]{100.0, 400.0});
+
+        when(coinService.readPrices(any(), any(), eq(BTC))).thenReturn(prices);
+
+        // Hours 1 and 2 have no sample; the samples around them are at 00:30 and 03:10
+        assertThatThrownBy(() -> calculator.calculate(sparseRequest(from, MissingPricePolicy.FAIL)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unable to find coin price for date range");
+        assertThat(calculator.calculate(sparseRequest(from, MissingPricePolicy.CARRY_FORWARD)).getAverageBalance())
+                .isEqualTo((100.0 + 100.0 + 100.0 + 400.0) / 4);
+        assertThat(calculator.calculate(sparseRequest(from, MissingPricePolicy.LINEAR)).getAverageBalance())
+                .isEqualTo((100.0 + 156.25 + 268.75 + 400.0) / 4);
+        var nearest = calculator.calculate(sparseRequest(from, MissingPricePolicy.NEAREST));
+        assertThat(nearest.getAverageBalance()).isEqualTo((100.0 + 100.0 + 400.0 + 400.0) / 4);
+        assertThat(nearest.getFilledHours()).containsExactly(
+                new FilledHour(BTC, from.plusHours(1)),
+                new FilledHour(BTC, from.plusHours(2)));
+    }
+
+    @Test
+    void calculateAll_fillsSparseCoinWithoutFailingOtherRequests() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var prices = PriceSeries.of(
+                new long[]{from.plusMinutes(30).toEpochSecond(), from.plusMinutes(190).toEpochSecond()},
+                new double[]{100.0, 400.0});
+
+        when(coinService.readPrices(any(), any(), eq(BTC))).thenReturn(prices);
+
+        var results = calculator.calculateAll(List.of(
+                sparseRequest(from, MissingPricePolicy.FAIL),
+                sparseRequest(from, MissingPricePolicy.CARRY_FORWARD))).toList();
+
+        assertThat(results.get(0).error()).contains("Unable to find coin price for date range");
+        assertThat(results.get(1).averageBalance()).isEqualTo(175.0);
+        assertThat(results.get(1).filledHours()).containsExactly(
+                new FilledHour(BTC, from.plusHours(1)),
+                new FilledHour(BTC, from.plusHours(2)));
+    }
+
+    @Test
+    void calculate_reportsStalePrices() {
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var price = new CoinPrice(10000.0, Instant.parse("2024-01-01T00:30:00Z"), BTC);
+
+        when(coinService.readPrices(any(), any(), eq(BTC)))
+                .thenReturn(PriceSeries.of(List.of(price)).asStale());
+
+        var result = calculator.calculate(AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(1))
+                .transactions(List.of(Transaction.builder()
+                        .dateTime(from)
+                        .type(TransactionType.DEPOSIT)
+                        .coin(BTC)
+                        .amount(1.0)
+                        .build()))
+                .build());
+
+        assertThat(result.getAverageBalance()).isEqualTo(10000.0);
+        assertThat(result.isStalePrices()).isTrue();
+    }
+
+    private static AverageBalanceCalculationRequest sparseRequest(ZonedDateTime from, MissingPricePolicy policy) {
+        return AverageBalanceCalculationRequest.builder()
+                .from(from)
+                .to(from.plusHours(4))
+                .missingPricePolicy(policy)
+                .transactions(List.of(Transaction.builder()
+                        .dateTime(from)
+                        .type(TransactionType.DEPOSIT)
+                        .coin(BTC)
+                        .amount(1.0)
+                        .build()))
+                .build();
+    }
 }
@@ -0,0 +1,68 @@
+package io.dobermoney.launchpool.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link CoingeckoCircuitBreaker}.
+ */
+class CoingeckoCircuitBreakerTest {
+
+    @Test
+    void acquirePermission_failsFastAfterConsecutiveFailures() {
+        var circuitBreaker = new CoingeckoCircuitBreaker(2, Duration.ofMinutes(1));
+
+        circuitBreaker.acquirePermission();
+        circuitBreaker.onFailure();
+        circuitBreaker.acquirePermission();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CoingeckoCircuitBreaker.State.OPEN);
+        assertThatThrownBy(circuitBreaker::acquirePermission)
+                .isInstanceOf(CoingeckoUnavailableException.class);
+    }
+
+    @Test
+    void onSuccess_resetsConsecutiveFailures() {
+        var circuitBreaker = new CoingeckoCircuitBreaker(2, Duration.ofMinutes(1));
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CoingeckoCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void acquirePermission_letsSingleProbeThroughAfterOpenDuration() {
+        var circuitBreaker = new CoingeckoCircuitBreaker(1, Duration.ZERO);
+        circuitBreaker.onFailure();
+
+        assertThatCode(circuitBreaker::acquirePermission).doesNotThrowAnyException();
+        assertThat(circuitBreaker.state()).isEqualTo(CoingeckoCircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(circuitBreaker::acquirePermission)
+                .isInstanceOf(CoingeckoUnavailableException.class);
+
+        circuitBreaker.onSuccess();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CoingeckoCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void onFailure_reopensAfterFailedProbe() {
+        var circuitBreaker = new CoingeckoCircuitBreaker(3, Duration.ZERO);
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.acquirePermission();
+
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CoingeckoCircuitBreaker.State.OPEN);
+    }
+}
@@ -0,0 +1,47 @@
+package io.dobermoney.launchpool.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link CoingeckoRateLimiter}.
+ */
+class CoingeckoRateLimiterTest {
+
+    @Test
+    void acquire_allowsBurstThenFailsFastWhenWaitExceedsTimeout() {
+        var rateLimiter = new CoingeckoRateLimiter(60, 2, Duration.ofMillis(100));
+
+        assertThatCode(() -> {
+            rateLimiter.acquire();
+            rateLimiter.acquire();
+            rateLimiter.acquire();
+        }).doesNotThrowAnyException();
+
+        assertThatThrownBy(rateLimiter::acquire)
+                .isInstanceOf(CoingeckoRateLimitException.class);
+    }
+
+    @Test
+    void acquire_failsFastWhilePausedByRetryAfter() {
+        var rateLimiter = new CoingeckoRateLimiter(600, 5, Duration.ofSeconds(1));
+
+        rateLimiter.pauseFor(Duration.ofMinutes(1));
+
+        assertThatThrownBy(rateLimiter::acquire)
+                .isInstanceOf(CoingeckoRateLimitException.class);
+    }
+
+    @Test
+    void acquire_waitsForShortPause() {
+        var rateLimiter = new CoingeckoRateLimiter(600, 5, Duration.ofSeconds(1));
+
+        rateLimiter.pauseFor(Duration.ofMillis(50));
+
+        assertThatCode(rateLimiter::acquire).doesNotThrowAnyException();
+    }
+}
@@ -0,0 +1,43 @@
+package io.dobermoney.launchpool.client.response;
+
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PriceSeriesDeserializer}.
+ */
+class PriceSeriesDeserializerTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void deserialize_streamsPricesAndSkipsOtherSeries() {
+        var json = """
+                {
+                  "prices": [[1704070800000, 43000.5], [1704067200000, 42000.25], [1704074400000, null]],
+                  "market_caps": [[1704067200000, 820000000000.0]],
+                  "total_volumes": [[1704067200000, 15000000000.0]]
+                }
+                """;
+
+        var response = jsonMapper.readValue(json, CoingeckoHistoricalChartDataResponse.class);
+
+        var prices = response.getPrices();
+        assertThat(prices.size()).isEqualTo(2);
+        assertThat(prices.timestampAt(0)).isEqualTo(1704067200L);
+        assertThat(prices.priceAt(0)).isEqualTo(42000.25);
+        assertThat(prices.timestampAt(1)).isEqualTo(1704070800L);
+        assertThat(prices.priceAt(1)).isEqualTo(43000.5);
+    }
+
+    @Test
+    void deserialize_returnsEmptySeriesForMissingOrNullPrices() {
+        var missing = jsonMapper.readValue("{}", CoingeckoHistoricalChartDataResponse.class);
+        var nullPrices = jsonMapper.readValue("{\"prices\":null}", CoingeckoHistoricalChartDataResponse.class);
+
+        assertThat(missing.getPrices().isEmpty()).isTrue();
+        assertThat(nullPrices.getPrices().isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,132 @@
+package io.dobermoney.launchpool.controller;
+
+import io.dobermoney.launchpool.calculator.AverageBalanceCalculator;
+import io.dobermoney.launchpool.calculator.request.AverageBalanceCalculationRequest;
+import io.dobermoney.launchpool.calculator.result.AverageBalanceBatchResult;
+import io.dobermoney.launchpool.config.properties.CalculationProperties;
+import io.dobermoney.launchpool.controller.request.AverageBalanceBatchRequest;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.CoinCatalog;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link AverageBalanceBatchController}: request validation and NDJSON framing of the response.
+ */
+@ExtendWith(MockitoExtension.class)
+class AverageBalanceBatchControllerTest {
+
+    private static final Coin BTC = Coin.builder().id("bitcoin").name("Bitcoin").symbol("btc").build();
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Mock
+    private AverageBalanceCalculator averageBalanceCalculator;
+
+    @Mock
+    private CoinCatalogService coinCatalogService;
+
+    private AverageBalanceBatchController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AverageBalanceBatchController(averageBalanceCalculator, coinCatalogService, jsonMapper,
+                new CalculationProperties(4, 16, 5));
+        lenient().when(coinCatalogService.getCatalog()).thenReturn(CoinCatalog.of(List.of(BTC)));
+    }
+
+    @Test
+    void calculateBatch_writesOneLinePerItemInOrder() throws Exception {
+        when(averageBalanceCalculator.calculateAll(any()))
+                .thenReturn(Stream.of(AverageBalanceBatchResult.success(0, 100.0)));
+
+        var lines = calculate("""
+                {"items":[
+                  {"id":"unknown","from":"2024-01-01T00:00:00Z","to":"2024-01-02T00:00:00Z",
+                   "transactions":[{"dateTime":"2024-01-01T01:00:00Z","type":"DEPOSIT","coinId":"nope","amount":1}]},
+                  {"id":"valid","from":"2024-01-01T00:00:00Z","to":"2024-01-02T00:00:00Z",
+                   "transactions":[{"dateTime":"2024-01-01T01:00:00Z","type":"DEPOSIT","coinId":"bitcoin","amount":1}]}
+                ]}
+                """);
+
+        assertThat(lines).containsExactly(
+                "{\"id\":\"unknown\",\"index\":0,\"error\":\"Unknown coin: nope\"}",
+                "{\"id\":\"valid\",\"index\":1,\"averageBalance\":100.0}");
+    }
+
+    @Test
+    void calculateBatch_rejectsIncompleteItemsWithoutFailingTheBatch() throws Exception {
+        when(averageBalanceCalculator.calculateAll(any()))
+                .thenReturn(Stream.of(AverageBalanceBatchResult.success(0, 100.0)));
+
+        var lines = calculate("""
+                {"items":[
+                  null,
+                  {"id":"no-transactions","transactions":null},
+                  {"id":"no-coin","transactions":[{"dateTime":"2024-01-01T01:00:00Z","type":"DEPOSIT","amount":1}]},
+                  {"id":"no-type","transactions":[{"dateTime":"2024-01-01T01:00:00Z","coinId":"bitcoin","amount":1}]},
+                  {"id":"valid","from":"2024-01-01T00:00:00Z","to":"2024-01-02T00:00:00Z","transactions":[]}
+                ]}
+                """);
+
+        assertThat(lines).containsExactly(
+                "{\"index\":0,\"error\":\"Missing item\"}",
+                "{\"id\":\"no-transactions\",\"index\":1,\"error\":\"Missing transactions\"}",
+                "{\"id\":\"no-coin\",\"index\":2,\"error\":\"Transaction 0 must have a date, a type and a coin id\"}",
+                "{\"id\":\"no-type\",\"index\":3,\"error\":\"Transaction 0 must have a date, a type and a coin id\"}",
+                "{\"id\":\"valid\",\"index\":4,\"averageBalance\":100.0}");
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AverageBalanceCalculationRequest>> requests = ArgumentCaptor.forClass(List.class);
+        verify(averageBalanceCalculator).calculateAll(requests.capture());
+        assertThat(requests.getValue()).hasSize(1);
+    }
+
+    @Test
+    void calculateBatch_treatsNullItemsAsEmptyBatch() throws Exception {
+        when(averageBalanceCalculator.calculateAll(any())).thenReturn(Stream.empty());
+
+        assertThat(calculate("{\"items\":null}")).isEmpty();
+    }
+
+    @Test
+    void calculateBatch_rejectsBatchesAboveTheItemLimit() {
+        var batch = jsonMapper.readValue("{\"items\":[{},{},{},{},{},{}]}", AverageBalanceBatchRequest.class);
+
+        assertThatThrownBy(() -> controller.calculateBatch(batch))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(averageBalanceCalculator);
+    }
+
+    private List<String> calculate(String json) throws Exception {
+        var response = controller.calculateBatch(jsonMapper.readValue(json, AverageBalanceBatchRequest.class));
+        var output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        var body = output.toString(StandardCharsets.UTF_8);
+        if (!body.isEmpty()) {
+            assertThat(body).endsWith("\n");
+        }
+        return body.lines().toList();
+    }
+}
@@ -0,0 +1,65 @@
+package io.dobermoney.launchpool.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link CoinCatalog}.
+ */
+class CoinCatalogTest {
+
+    private static final Coin BTC = coin("bitcoin", "Bitcoin", "btc");
+    private static final Coin BCH = coin("bitcoin-cash", "Bitcoin Cash", "bch");
+    private static final Coin WBTC = coin("wrapped-bitcoin", "Wrapped Bitcoin", "wbtc");
+    private static final Coin ETH = coin("ethereum", "Ethereum", "eth");
+    private static final Coin BNB = coin("binancecoin", "BNB", "bnb");
+
+    private final CoinCatalog catalog = CoinCatalog.of(List.of(ETH, WBTC, BTC, BCH, BNB));
+
+    @Test
+    void find_matchesSymbolsBeforeNamesIgnoringCase() {
+        assertThat(catalog.find("B", 0, 10)).containsExactly(BCH, BNB, BTC);
+        assertThat(catalog.find("bit", 0, 10)).containsExactly(BTC, BCH);
+        assertThat(catalog.find("w", 0, 10)).containsExactly(WBTC);
+        assertThat(catalog.find("xyz", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void find_pagesOverSymbolAndNameMatches() {
+        var catalog = CoinCatalog.of(List.of(BTC, BCH, ETH, coin("ethereum-classic", "Ethereum Classic", "etc")));
+
+        assertThat(catalog.count("e")).isEqualTo(2);
+        assertThat(catalog.count("b")).isEqualTo(2);
+        assertThat(catalog.find("b", 1, 10)).containsExactly(BTC);
+        assertThat(catalog.find("ethereum", 0, 1)).containsExactly(ETH);
+        assertThat(catalog.find("ethereum", 1, 1)).extracting(Coin::getId).containsExactly("ethereum-classic");
+    }
+
+    @Test
+    void count_matchesEachCoinOnce() {
+        var bitcoinLike = coin("bit", "Bit", "bit");
+        var catalog = CoinCatalog.of(List.of(BTC, bitcoinLike));
+
+        assertThat(catalog.count("bit")).isEqualTo(2);
+        assertThat(catalog.find("bit", 0, 10)).containsExactly(bitcoinLike, BTC);
+    }
+
+    @Test
+    void blankFilterMatchesAllCoinsInSymbolOrder() {
+        assertThat(catalog.count(" ")).isEqualTo(5);
+        assertThat(catalog.find(null, 1, 2)).containsExactly(BNB, BTC);
+        assertThat(catalog.findById("ethereum")).containsSame(ETH);
+        assertThat(catalog.findById("unknown")).isEmpty();
+    }
+
+    private static Coin coin(String id, String name, String symbol) {
+        return Coin.builder()
+                .id(id)
+                .name(name)
+                .symbol(symbol)
+                .build();
+    }
+}
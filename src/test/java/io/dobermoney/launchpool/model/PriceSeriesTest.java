@@ -0,0 +1,108 @@
+package io.dobermoney.launchpool.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link PriceSeries}.
+ */
+class PriceSeriesTest {
+
+    @Test
+    void of_sortsSamplesByTimestamp() {
+        var series = PriceSeries.of(new long[]{300, 100, 200}, new double[]{3.0, 1.0, 2.0});
+
+        assertThat(series.size()).isEqualTo(3);
+        assertThat(series.timestampAt(0)).isEqualTo(100);
+        assertThat(series.priceAt(0)).isEqualTo(1.0);
+        assertThat(series.timestampAt(2)).isEqualTo(300);
+        assertThat(series.priceAt(2)).isEqualTo(3.0);
+    }
+
+    @Test
+    void of_throwsWhenArraysDifferInLength() {
+        assertThatThrownBy(() -> PriceSeries.of(new long[]{1, 2}, new double[]{1.0}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void of_convertsCoinPrices() {
+        var series = PriceSeries.of(List.of(
+                new CoinPrice(20.0, Instant.ofEpochSecond(7200), null),
+                new CoinPrice(10.0, Instant.ofEpochSecond(3600), null)));
+
+        assertThat(series.timestampAt(0)).isEqualTo(3600);
+        assertThat(series.priceAt(1)).isEqualTo(20.0);
+    }
+
+    @Test
+    void findFirstPrice_returnsEarliestSampleInRange() {
+        var series = PriceSeries.builder()
+                .add(3700, 2.0)
+                .add(3650, 1.0)
+                .add(7300, 3.0)
+                .build();
+
+        assertThat(series.findFirstPrice(3600, 7200)).hasValue(1.0);
+        assertThat(series.findFirstPrice(7200, 10800)).hasValue(3.0);
+        assertThat(series.findFirstPrice(0, 3600)).isEmpty();
+        assertThat(series.findFirstPrice(10800, 14400)).isEmpty();
+    }
+
+    @Test
+    void slice_keepsSamplesWithinInclusiveRange() {
+        var series = PriceSeries.of(new long[]{10, 20, 30, 40}, new double[]{1.0, 2.0, 3.0, 4.0});
+
+        var slice = series.slice(20, 30);
+
+        assertThat(slice.size()).isEqualTo(2);
+        assertThat(slice.priceAt(0)).isEqualTo(2.0);
+        assertThat(slice.priceAt(1)).isEqualTo(3.0);
+        assertThat(series.slice(0, 100)).isSameAs(series);
+        assertThat(series.slice(41, 50).isEmpty()).isTrue();
+    }
+
+    @Test
+    void ceilingIndex_returnsSizeWhenNoLaterSample() {
+        var series = PriceSeries.of(new long[]{10, 20}, new double[]{1.0, 2.0});
+
+        assertThat(series.ceilingIndex(5)).isZero();
+        assertThat(series.ceilingIndex(20)).isEqualTo(1);
+        assertThat(series.ceilingIndex(21)).isEqualTo(2);
+        assertThat(PriceSeries.empty().ceilingIndex(0)).isZero();
+    }
+
+    @Test
+    void firstPerInterval_keepsFirstSampleOfEachHour() {
+        var series = PriceSeries.of(new long[]{3600, 3900, 7500, 7800, 14500}, new double[]{1.0, 2.0, 3.0, 4.0, 5.0});
+
+        var hourly = series.firstPerInterval(3600);
+
+        assertThat(hourly.size()).isEqualTo(3);
+        assertThat(hourly.timestampAt(0)).isEqualTo(3600);
+        assertThat(hourly.priceAt(0)).isEqualTo(1.0);
+        assertThat(hourly.timestampAt(1)).isEqualTo(7200);
+        assertThat(hourly.priceAt(1)).isEqualTo(3.0);
+        assertThat(hourly.timestampAt(2)).isEqualTo(14400);
+        assertThat(hourly.priceAt(2)).isEqualTo(5.0);
+    }
+
+    @Test
+    void asStale_propagatesToSlicesAndMergedSeries() {
+        var stale = PriceSeries.of(new long[]{10, 20}, new double[]{1.0, 2.0}).asStale();
+        var fresh = PriceSeries.of(new long[]{30}, new double[]{3.0});
+
+        var merged = PriceSeries.builder().addAll(fresh).addAll(stale).build();
+
+        assertThat(stale.slice(15, 25).isStale()).isTrue();
+        assertThat(stale.slice(40, 50).isStale()).isTrue();
+        assertThat(merged.isStale()).isTrue();
+        assertThat(merged.timestampAt(0)).isEqualTo(10);
+        assertThat(fresh.isStale()).isFalse();
+    }
+}
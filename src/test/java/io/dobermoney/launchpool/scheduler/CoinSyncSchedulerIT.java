@@ -0,0 +1,115 @@
+package io.dobermoney.launchpool.scheduler;
+
+import io.dobermoney.launchpool.entity.JpaCoin;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.FetchedCoins;
+import io.dobermoney.launchpool.repository.CoinRepository;
+import io.dobermoney.launchpool.service.impl.CoingeckoCoinService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration test for the differential coin sync of {@link CoinSyncScheduler}.
+ * The Coingecko service is mocked, coins are stored in the in-memory test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CoinSyncSchedulerIT {
+
+    @MockitoBean
+    private CoingeckoCoinService coingeckoCoinService;
+
+    @Autowired
+    private CoinSyncScheduler coinSyncScheduler;
+
+    @Autowired
+    private CoinRepository coinRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        coinRepository.deleteAllInBatch();
+        coinRepository.saveAll(Set.of(
+                entity("bitcoin", "Bitcoin"),
+                entity("ethereum", "Ethereum"),
+                entity("delisted", "Delisted")));
+    }
+
+    @Test
+    void syncCoins_writesOnlyDifferences() {
+        when(coingeckoCoinService.fetchCoins()).thenReturn(new FetchedCoins(Set.of(
+                coin("bitcoin", "Bitcoin"),
+                coin("ethereum", "Ether"),
+                coin("solana", "Solana")), new TreeSet<>()));
+        var inserts = rows("insert");
+        var updates = rows("update");
+        var deletes = rows("delete");
+
+        coinSyncScheduler.syncCoins();
+
+        assertThat(coinRepository.findAll())
+                .extracting(JpaCoin::getId, JpaCoin::getName)
+                .containsExactlyInAnyOrder(
+                        tuple("bitcoin", "Bitcoin"),
+                        tuple("ethereum", "Ether"),
+                        tuple("solana", "Solana"));
+        assertThat(rows("insert") - inserts).isEqualTo(1);
+        assertThat(rows("update") - updates).isEqualTo(1);
+        assertThat(rows("delete") - deletes).isEqualTo(1);
+    }
+
+    @Test
+    void syncCoins_keepsStoredCoinsWhenNothingFetched() {
+        when(coingeckoCoinService.fetchCoins()).thenReturn(new FetchedCoins(Set.of(), new TreeSet<>()));
+
+        coinSyncScheduler.syncCoins();
+
+        assertThat(coinRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void syncCoins_mergesPartialCatalogWithoutDeleting() {
+        when(coingeckoCoinService.fetchCoins()).thenReturn(new FetchedCoins(
+                Set.of(coin("solana", "Solana")), new TreeSet<>(Set.of(2))));
+
+        coinSyncScheduler.syncCoins();
+
+        assertThat(coinRepository.findAll())
+                .extracting(JpaCoin::getId)
+                .containsExactlyInAnyOrder("bitcoin", "ethereum", "delisted", "solana");
+    }
+
+    private double rows(String operation) {
+        return meterRegistry.counter(CoinSyncScheduler.ROWS_METRIC, "operation", operation).count();
+    }
+
+    private static JpaCoin entity(String id, String name) {
+        return JpaCoin.builder()
+                .id(id)
+                .name(name)
+                .symbol(id)
+                .build();
+    }
+
+    private static Coin coin(String id, String name) {
+        return Coin.builder()
+                .id(id)
+                .name(name)
+                .symbol(id)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package io.dobermoney.launchpool.scheduler;
+
+import io.dobermoney.launchpool.entity.JpaCoin;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+import io.dobermoney.launchpool.repository.CoinRepository;
+import io.dobermoney.launchpool.repository.HourlyPriceCoverageRepository;
+import io.dobermoney.launchpool.repository.HourlyPriceRepository;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import io.dobermoney.launchpool.service.impl.CoingeckoCoinService;
+import io.dobermoney.launchpool.service.impl.DatabaseCoinService;
+import io.dobermoney.launchpool.service.impl.HourlyPriceStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration test for {@link HourlyPriceBackfillScheduler}.
+ * The Coingecko service is mocked, hourly prices are stored in the in-memory test database.
+ */
+@SpringBootTest(properties = {
+        "price-backfill.tracked-coins=tracked-coin",
+        "price-backfill.history=P100D"
+})
+@ActiveProfiles("test")
+class HourlyPriceBackfillSchedulerIT {
+    private static final String COIN_ID = "tracked-coin";
+
+    @MockitoBean
+    private CoingeckoCoinService coingeckoCoinService;
+
+    @Autowired
+    private HourlyPriceBackfillScheduler hourlyPriceBackfillScheduler;
+
+    @Autowired
+    private HourlyPriceStore hourlyPriceStore;
+
+    @Autowired
+    private DatabaseCoinService databaseCoinService;
+
+    @Autowired
+    private CoinRepository coinRepository;
+
+    @Autowired
+    private CoinCatalogService coinCatalogService;
+
+    @Autowired
+    private HourlyPriceRepository hourlyPriceRepository;
+
+    @Autowired
+    private HourlyPriceCoverageRepository hourlyPriceCoverageRepository;
+
+    @BeforeEach
+    void setUp() {
+        hourlyPriceRepository.deleteAll();
+        hourlyPriceCoverageRepository.deleteAll();
+        coinRepository.save(JpaCoin.builder().id(COIN_ID).name("Tracked").symbol("trk").build());
+        coinCatalogService.refresh();
+    }
+
+    @Test
+    void backfill_storesFirstPricePerHourAndServesCalculationsWithoutCoingecko() {
+        var coin = coinCatalogService.getCatalog().findById(COIN_ID).orElseThrow();
+
+        var hour = Instant.now().minus(Duration.ofHours(5)).getEpochSecond() / 3600 * 3600;
+        when(coingeckoCoinService.readPrices(any(), any(), any()))
+                .thenReturn(PriceSeries.of(
+                        new long[]{hour + 300, hour + 600, hour + 3900},
+                        new double[]{1.0, 2.0, 3.0}));
+
+        hourlyPriceBackfillScheduler.backfill();
+
+        var coverage = hourlyPriceStore.findCoverage(COIN_ID).orElseThrow();
+        assertThat(coverage.to()).isGreaterThanOrEqualTo(hour + 7199);
+
+        clearInvocations(coingeckoCoinService);
+        var from = ZonedDateTime.ofInstant(Instant.ofEpochSecond(hour), ZoneOffset.UTC);
+        var prices = databaseCoinService.readPrices(from, from.plusHours(2), coin);
+
+        verifyNoInteractions(coingeckoCoinService);
+        assertThat(prices.size()).isEqualTo(2);
+        assertThat(prices.timestampAt(0)).isEqualTo(hour);
+        assertThat(prices.priceAt(0)).isEqualTo(1.0);
+        assertThat(prices.timestampAt(1)).isEqualTo(hour + 3600);
+        assertThat(prices.priceAt(1)).isEqualTo(3.0);
+    }
+
+    @Test
+    void backfill_keepsCoverageContiguousWhenOlderChunkFails() {
+        var now = Instant.now().getEpochSecond() / 3600 * 3600;
+        var recentStart = now - Duration.ofDays(10).toSeconds();
+        hourlyPriceStore.write(COIN_ID, PriceSeries.empty(), new TimeRange(recentStart, now - 3600 - 1));
+        // Extending the history backwards by 90 days takes three chunks; the second one fails
+        when(coingeckoCoinService.readPrices(any(), any(), any()))
+                .thenReturn(PriceSeries.empty())
+                .thenThrow(new IllegalStateException("Coingecko is down"))
+                .thenReturn(PriceSeries.empty());
+
+        hourlyPriceBackfillScheduler.backfill();
+
+        var coverage = hourlyPriceStore.findCoverage(COIN_ID).orElseThrow();
+        assertThat(coverage.from()).isEqualTo(recentStart - Duration.ofDays(30).toSeconds());
+
+        reset(coingeckoCoinService);
+        when(coingeckoCoinService.readPrices(any(), any(), any())).thenReturn(PriceSeries.empty());
+
+        hourlyPriceBackfillScheduler.backfill();
+
+        assertThat(hourlyPriceStore.findCoverage(COIN_ID).orElseThrow().from())
+                .isEqualTo(now - Duration.ofDays(100).toSeconds());
+    }
+}
@@ -0,0 +1,98 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.config.properties.PriceArchiveProperties;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.service.CoinCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ArchiveCoinService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ArchiveCoinServiceTest {
+
+    private static final Coin BTC = Coin.builder()
+            .id("bitcoin")
+            .name("Bitcoin")
+            .symbol("btc")
+            .build();
+
+    private static final ZonedDateTime MONTH_START = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    private Path directory;
+
+    @Mock
+    private CoingeckoCoinService delegate;
+
+    @Mock
+    private CoinCatalogService coinCatalogService;
+
+    private ArchiveCoinService archiveCoinService;
+
+    @BeforeEach
+    void setUp() {
+        archiveCoinService = new ArchiveCoinService(new PriceArchiveProperties(true, directory), delegate, coinCatalogService);
+    }
+
+    @Test
+    void readPrices_archivesPastMonthOnceAndServesLaterReadsFromFile() {
+        when(delegate.readPrices(any(), any(), any())).thenReturn(PriceSeries.of(
+                new long[]{MONTH_START.plusHours(1).toEpochSecond(), MONTH_START.plusDays(10).toEpochSecond()},
+                new double[]{1.0, 2.0}));
+
+        var first = archiveCoinService.readPrices(MONTH_START, MONTH_START.plusDays(2), BTC);
+        var second = archiveCoinService.readPrices(MONTH_START.plusDays(5), MONTH_START.plusDays(15), BTC);
+
+        verify(delegate, times(1)).readPrices(any(), any(), any());
+        verify(delegate).readPrices(MONTH_START, MONTH_START.plusMonths(1).minusSeconds(1), BTC);
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(first.priceAt(0)).isEqualTo(1.0);
+        assertThat(second.size()).isEqualTo(1);
+        assertThat(second.priceAt(0)).isEqualTo(2.0);
+    }
+
+    @Test
+    void readPrices_fetchesCurrentMonthFromCoingecko() {
+        var to = ZonedDateTime.now();
+        var from = to.minusHours(2);
+        when(delegate.readPrices(any(), any(), any())).thenReturn(PriceSeries.empty());
+
+        archiveCoinService.readPrices(from, to, BTC);
+        archiveCoinService.readPrices(from, to, BTC);
+
+        verify(delegate, times(2)).readPrices(any(), any(), any());
+    }
+
+    @Test
+    void readPrices_fetchesWholeRangeFromCoingeckoOnceItReachesTheLiveMonth() {
+        var from = ZonedDateTime.now(ZoneOffset.UTC).minusHours(2);
+        var to = from.plusMonths(2);
+        when(delegate.readPrices(any(), any(), any())).thenReturn(PriceSeries.of(
+                new long[]{from.plusHours(1).toEpochSecond(), from.plusMonths(1).toEpochSecond()},
+                new double[]{1.0, 2.0}));
+
+        var prices = archiveCoinService.readPrices(from, to, BTC);
+
+        verify(delegate).readPrices(from.withNano(0), to.withNano(0), BTC);
+        assertThat(prices.size()).isEqualTo(2);
+        assertThat(prices.priceAt(0)).isEqualTo(1.0);
+        assertThat(prices.priceAt(1)).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,126 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.config.properties.PriceCacheProperties;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.PriceSeries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CachingCoinService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingCoinServiceTest {
+
+    private static final Coin BTC = Coin.builder()
+            .id("bitcoin")
+            .name("Bitcoin")
+            .symbol("btc")
+            .build();
+
+    private static final ZonedDateTime HOUR = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private DatabaseCoinService delegate;
+
+    private CachingCoinService cachingCoinService;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new PriceCacheProperties(DataSize.ofMegabytes(1), Duration.ofHours(1), Duration.ofMinutes(1));
+        cachingCoinService = new CachingCoinService(delegate, properties);
+    }
+
+    @Test
+    void readPrices_servesRangesWithinSameHoursFromCache() {
+        when(delegate.readPrices(HOUR, HOUR.plusHours(3), BTC))
+                .thenReturn(PriceSeries.of(
+                        new long[]{HOUR.plusMinutes(10).toEpochSecond(), HOUR.plusMinutes(130).toEpochSecond()},
+                        new double[]{1.0, 2.0}));
+
+        var first = cachingCoinService.readPrices(HOUR.plusMinutes(5), HOUR.plusMinutes(150), BTC);
+        var second = cachingCoinService.readPrices(HOUR.plusMinutes(20), HOUR.plusMinutes(170), BTC);
+
+        verify(delegate, times(1)).readPrices(any(), any(), eq(BTC));
+        assertThat(first.size()).isEqualTo(2);
+        assertThat(second.size()).isEqualTo(1);
+        assertThat(second.priceAt(0)).isEqualTo(2.0);
+        assertThat(cachingCoinService.stats().hitCount()).isEqualTo(1);
+        assertThat(cachingCoinService.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void readPrices_coalescesConcurrentIdenticalRequests() throws Exception {
+        var loadStarted = new CountDownLatch(1);
+        var releaseLoad = new CountDownLatch(1);
+        when(delegate.readPrices(any(), any(), eq(BTC))).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await();
+            return PriceSeries.of(new long[]{HOUR.plusMinutes(30).toEpochSecond()}, new double[]{1.0});
+        });
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var first = CompletableFuture.supplyAsync(
+                    () -> cachingCoinService.readPrices(HOUR, HOUR.plusHours(1), BTC), executor);
+            loadStarted.await();
+            var second = CompletableFuture.supplyAsync(
+                    () -> cachingCoinService.readPrices(HOUR, HOUR.plusHours(1), BTC), executor);
+            releaseLoad.countDown();
+
+            assertThat(first.get().priceAt(0)).isEqualTo(1.0);
+            assertThat(second.get().priceAt(0)).isEqualTo(1.0);
+        }
+        verify(delegate, times(1)).readPrices(any(), any(), eq(BTC));
+    }
+
+    @Test
+    void readPrices_stopsWaitingForCoalescedLoadWhenInterrupted() throws Exception {
+        var loadStarted = new CountDownLatch(1);
+        var releaseLoad = new CountDownLatch(1);
+        when(delegate.readPrices(any(), any(), eq(BTC))).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await();
+            return PriceSeries.empty();
+        });
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> cachingCoinService.readPrices(HOUR, HOUR.plusHours(1), BTC));
+            loadStarted.await();
+            var waiter = new CompletableFuture<Throwable>();
+            var waiterThread = Thread.ofVirtual().start(() -> {
+                try {
+                    cachingCoinService.readPrices(HOUR, HOUR.plusHours(1), BTC);
+                    waiter.complete(null);
+                } catch (RuntimeException e) {
+                    waiter.complete(Thread.currentThread().isInterrupted() ? e : null);
+                }
+            });
+            while (waiterThread.getState() != Thread.State.WAITING) {
+                Thread.onSpinWait();
+            }
+            waiterThread.interrupt();
+
+            assertThat(waiter.get(5, TimeUnit.SECONDS)).isInstanceOf(CancellationException.class);
+            releaseLoad.countDown();
+        }
+    }
+}
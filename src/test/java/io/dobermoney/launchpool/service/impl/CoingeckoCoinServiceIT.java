@@ -1,6 +1,8 @@
 package io.dobermoney.launchpool.service.impl;
 
 import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.TimeRange;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,12 +11,16 @@ import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
 
+import java.net.SocketTimeoutException;
 import java.time.Instant;
 import java.time.ZonedDateTime;
+import java.util.function.IntFunction;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
@@ -43,32 +49,62 @@ class CoingeckoCoinServiceIT {
     static void configureProperties(DynamicPropertyRegistry registry) {
         registry.add("integrations.coingecko.api-url",
                 () -> "http://localhost:" + wireMock.getPort() + "/api/v3");
+        registry.add("integrations.coingecko.http.market-chart-timeout", () -> "PT1S");
     }
 
     @Autowired
     private CoingeckoCoinService coingeckoCoinService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void readCoins_returnsCoinsFromAllPages() {
-        var coinJson = """
-                [{"id":"%s","name":"%s","symbol":"%s","image":"%s","market_cap_rank":1}]
-                """.formatted(COIN_ID, COIN_NAME, COIN_SYMBOL, COIN_IMAGE);
-
-        wireMock.stubFor(get(urlPathEqualTo("/api/v3/coins/markets"))
-                .willReturn(aResponse()
-                        .withHeader("Content-Type", "application/json")
-                        .withBody(coinJson)));
+        stubCoinPages(page -> aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(coinJson(page)));
 
         var coins = coingeckoCoinService.readCoins();
 
         assertThat(coins).hasSize(6); // 6 pages, 1 coin per page
-        var coin = coins.iterator().next();
-        assertThat(coin.getId()).isEqualTo(COIN_ID);
+        var coin = coins.stream()
+                .filter(c -> c.getId().equals(COIN_ID + "-1"))
+                .findFirst()
+                .orElseThrow();
         assertThat(coin.getName()).isEqualTo(COIN_NAME);
         assertThat(coin.getSymbol()).isEqualTo(COIN_SYMBOL);
         assertThat(coin.getImage()).isEqualTo(COIN_IMAGE);
     }
 
+    @Test
+    void fetchCoins_keepsSuccessfulPagesWhenOnePageFails() {
+        stubCoinPages(page -> page == 3
+                ? aResponse().withStatus(500)
+                : aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(coinJson(page)));
+
+        var fetchedCoins = coingeckoCoinService.fetchCoins();
+
+        assertThat(fetchedCoins.coins()).hasSize(5);
+        assertThat(fetchedCoins.failedPages()).containsExactly(3);
+        assertThat(fetchedCoins.isComplete()).isFalse();
+    }
+
+    private static void stubCoinPages(IntFunction<ResponseDefinitionBuilder> response) {
+        for (var page = 1; page <= 6; page++) {
+            wireMock.stubFor(get(urlPathEqualTo("/api/v3/coins/markets"))
+                    .withQueryParam("page", equalTo(String.valueOf(page)))
+                    .willReturn(response.apply(page)));
+        }
+    }
+
+    private static String coinJson(int page) {
+        return """
+                [{"id":"%s-%d","name":"%s","symbol":"%s","image":"%s","market_cap_rank":%d}]
+                """.formatted(COIN_ID, page, COIN_NAME, COIN_SYMBOL, COIN_IMAGE, page);
+    }
+
     @Test
     void readPrices_returnsPriceDataForCoin() {
         var coin = Coin.builder()
@@ -94,10 +130,81 @@ class CoingeckoCoinServiceIT {
 
         var prices = coingeckoCoinService.readPrices(from, to, coin);
 
-        assertThat(prices).hasSize(1);
-        var coinPrice = prices.iterator().next();
-        assertThat(coinPrice.price()).isEqualTo(price);
-        assertThat(coinPrice.timestamp()).isEqualTo(Instant.ofEpochMilli(timestamp));
-        assertThat(coinPrice.coin()).isEqualTo(coin);
+        assertThat(prices.size()).isEqualTo(1);
+        assertThat(prices.priceAt(0)).isEqualTo(price);
+        assertThat(prices.timestampAt(0)).isEqualTo(Instant.ofEpochMilli(timestamp).getEpochSecond());
+    }
+
+    @Test
+    void readPrices_splitsLongRangesIntoHourlyWindows() {
+        var coin = Coin.builder().id(COIN_ID).name(COIN_NAME).symbol(COIN_SYMBOL).build();
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var to = from.plusDays(200);
+        var windows = CoingeckoCoinService.planWindows(new TimeRange(from.toEpochSecond(), to.toEpochSecond()));
+
+        assertThat(windows).hasSize(3);
+        assertThat(windows.getLast().to()).isEqualTo(to.toEpochSecond());
+        // Stub the windows in reverse order to check that the result is sorted
+        for (var i = windows.size() - 1; i >= 0; i--) {
+            var window = windows.get(i);
+            wireMock.stubFor(get(urlPathEqualTo("/api/v3/coins/bitcoin/market_chart/range"))
+                    .withQueryParam("from", equalTo(String.valueOf(window.from())))
+                    .withQueryParam("to", equalTo(String.valueOf(window.to())))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", "application/json")
+                            .withBody("""
+                                    {"prices":[[%d,%d]]}
+                                    """.formatted(window.from() * 1000, i))));
+        }
+
+        var prices = coingeckoCoinService.readPrices(from, to, coin);
+
+        assertThat(prices.size()).isEqualTo(3);
+        assertThat(prices.priceAt(0)).isEqualTo(0);
+        assertThat(prices.priceAt(2)).isEqualTo(2);
+        wireMock.verify(3, getRequestedFor(urlPathEqualTo("/api/v3/coins/bitcoin/market_chart/range")));
+    }
+
+    @Test
+    void readPrices_requestsCompressedResponses() {
+        var coin = Coin.builder().id(COIN_ID).name(COIN_NAME).symbol(COIN_SYMBOL).build();
+        wireMock.stubFor(get(urlPathEqualTo("/api/v3/coins/bitcoin/market_chart/range"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"prices":[[1704067200000,42000.5]]}
+                                """)));
+
+        var prices = coingeckoCoinService.readPrices(
+                ZonedDateTime.parse("2024-01-01T00:00:00Z"), ZonedDateTime.parse("2024-01-02T00:00:00Z"), coin);
+
+        assertThat(prices.priceAt(0)).isEqualTo(42000.5);
+        wireMock.verify(getRequestedFor(urlPathEqualTo("/api/v3/coins/bitcoin/market_chart/range"))
+                .withHeader("Accept-Encoding", containing("gzip")));
+    }
+
+    @Test
+    void readPrices_failsWhenMarketChartResponseTimesOut() {
+        var coin = Coin.builder().id(COIN_ID).name(COIN_NAME).symbol(COIN_SYMBOL).build();
+        wireMock.stubFor(get(urlPathEqualTo("/api/v3/coins/bitcoin/market_chart/range"))
+                .willReturn(aResponse()
+                        .withFixedDelay(2000)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {"prices":[]}
+                                """)));
+
+        assertThatThrownBy(() -> coingeckoCoinService.readPrices(
+                ZonedDateTime.parse("2024-01-01T00:00:00Z"), ZonedDateTime.parse("2024-01-02T00:00:00Z"), coin))
+                .hasRootCauseInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    void connectionPool_isExportedAsMetrics() {
+        var maxConnections = meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "coingecko")
+                .gauge();
+
+        assertThat(maxConnections.value()).isEqualTo(8);
     }
 }
@@ -0,0 +1,64 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.config.properties.PriceCacheProperties;
+import io.dobermoney.launchpool.model.Currency;
+import io.dobermoney.launchpool.model.PriceSeries;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link CoingeckoExchangeRateService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CoingeckoExchangeRateServiceTest {
+
+    private static final ZonedDateTime HOUR = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+
+    @Mock
+    private CoingeckoCoinService coingeckoCoinService;
+
+    private CoingeckoExchangeRateService exchangeRateService;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new PriceCacheProperties(DataSize.ofMegabytes(1), Duration.ofHours(1), Duration.ofMinutes(1));
+        exchangeRateService = new CoingeckoExchangeRateService(coingeckoCoinService, properties);
+    }
+
+    @Test
+    void readRates_dividesReferencePricesPerHourAndCachesSeries() {
+        when(coingeckoCoinService.readPrices(any(), any(), any(), eq(Currency.EUR)))
+                .thenReturn(PriceSeries.of(
+                        new long[]{HOUR.plusMinutes(5).toEpochSecond(), HOUR.plusMinutes(65).toEpochSecond()},
+                        new double[]{45000.0, 46000.0}));
+        when(coingeckoCoinService.readPrices(any(), any(), any(), eq(Currency.USD)))
+                .thenReturn(PriceSeries.of(
+                        new long[]{HOUR.plusMinutes(4).toEpochSecond(), HOUR.plusMinutes(124).toEpochSecond()},
+                        new double[]{50000.0, 52000.0}));
+
+        var first = exchangeRateService.readRates(HOUR, HOUR.plusHours(3), Currency.EUR);
+        var second = exchangeRateService.readRates(HOUR.plusMinutes(1), HOUR.plusMinutes(170), Currency.EUR);
+
+        // The second hour has no USD price, so it has no rate
+        assertThat(first.size()).isEqualTo(1);
+        assertThat(first.timestampAt(0)).isEqualTo(HOUR.plusMinutes(5).toEpochSecond());
+        assertThat(first.priceAt(0)).isEqualTo(0.9);
+        assertThat(second.size()).isEqualTo(1);
+        verify(coingeckoCoinService, times(1)).readPrices(any(), any(), any(), eq(Currency.EUR));
+        verify(coingeckoCoinService, times(1)).readPrices(any(), any(), any(), eq(Currency.USD));
+    }
+}
@@ -0,0 +1,135 @@
+package io.dobermoney.launchpool.service.impl;
+
+import io.dobermoney.launchpool.client.CoingeckoUnavailableException;
+import io.dobermoney.launchpool.model.Coin;
+import io.dobermoney.launchpool.model.PriceSeries;
+import io.dobermoney.launchpool.model.TimeRange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration test for {@link DatabaseCoinService} price history persistence.
+ * The Coingecko service is mocked, prices are stored in the in-memory test database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DatabaseCoinServiceIT {
+
+    @MockitoBean
+    private CoingeckoCoinService coingeckoCoinService;
+
+    @Autowired
+    private DatabaseCoinService databaseCoinService;
+
+    @Autowired
+    private PriceHistoryStore priceHistoryStore;
+
+    @Test
+    void readPrices_servesRepeatedPastRangeFromDatabase() {
+        var coin = coin("stored-coin");
+        var from = ZonedDateTime.parse("2024-01-01T00:00:00Z");
+        var to = ZonedDateTime.parse("2024-01-01T03:00:00Z");
+        when(coingeckoCoinService.readPrices(any(), any(), eq(coin)))
+                .thenReturn(PriceSeries.of(
+                        new long[]{from.plusMinutes(30).toEpochSecond(), from.plusMinutes(90).toEpochSecond()},
+                        new double[]{1.0, 2.0}));
+
+        var first = databaseCoinService.readPrices(from, to, coin);
+        var second = databaseCoinService.readPrices(from, to, coin);
+
+        verify(coingeckoCoinService, times(1)).readPrices(any(), any(), eq(coin));
+        assertThat(first.size()).isEqualTo(2);
+        assertThat(second.size()).isEqualTo(2);
+        assertThat(second.timestampAt(1)).isEqualTo(from.plusMinutes(90).toEpochSecond());
+        assertThat(second.priceAt(1)).isEqualTo(2.0);
+    }
+
+    @Test
+    void readPrices_fetchesOnlyMissingSubRange() {
+        var coin = coin("partial-coin");
+        var from = ZonedDateTime.parse("2024-02-01T00:00:00Z");
+        var middle = ZonedDateTime.parse("2024-02-01T12:00:00Z");
+        var to = ZonedDateTime.parse("2024-02-01T18:00:00Z");
+        when(coingeckoCoinService.readPrices(any(), any(), eq(coin)))
+                .thenReturn(PriceSeries.of(new long[]{from.plusHours(1).toEpochSecond()}, new double[]{1.0}))
+                .thenReturn(PriceSeries.of(new long[]{middle.plusHours(1).toEpochSecond()}, new double[]{2.0}));
+
+        databaseCoinService.readPrices(from, middle, coin);
+        var prices = databaseCoinService.readPrices(from, to, coin);
+
+        verify(coingeckoCoinService).readPrices(from, middle, coin);
+        verify(coingeckoCoinService).readPrices(middle, to, coin);
+        assertThat(prices.size()).isEqualTo(2);
+        assertThat(prices.priceAt(0)).isEqualTo(1.0);
+        assertThat(prices.priceAt(1)).isEqualTo(2.0);
+    }
+
+    @Test
+    void readPrices_servesStoredPricesAsStaleWhileCoingeckoIsUnavailable() {
+        var coin = coin("outage-coin");
+        var from = ZonedDateTime.parse("2024-03-01T00:00:00Z");
+        var middle = ZonedDateTime.parse("2024-03-01T12:00:00Z");
+        var to = ZonedDateTime.parse("2024-03-01T18:00:00Z");
+        when(coingeckoCoinService.readPrices(any(), any(), eq(coin)))
+                .thenReturn(PriceSeries.of(new long[]{from.plusHours(1).toEpochSecond()}, new double[]{1.0}))
+                .thenThrow(new CoingeckoUnavailableException("Coingecko is unavailable, circuit is OPEN"));
+
+        var stored = databaseCoinService.readPrices(from, middle, coin);
+        var prices = databaseCoinService.readPrices(from, to, coin);
+
+        assertThat(stored.isStale()).isFalse();
+        assertThat(prices.isStale()).isTrue();
+        assertThat(prices.size()).isEqualTo(1);
+        assertThat(prices.priceAt(0)).isEqualTo(1.0);
+    }
+
+    @Test
+    void write_storesConcurrentOverlappingFetchesOnce() throws Exception {
+        var from = ZonedDateTime.parse("2024-04-01T00:00:00Z").toEpochSecond();
+        var timestamps = IntStream.range(0, 500).mapToLong(i -> from + i * 60L).toArray();
+        var prices = PriceSeries.of(timestamps, IntStream.range(0, 500).mapToDouble(i -> i).toArray());
+        var range = new TimeRange(from, timestamps[timestamps.length - 1]);
+
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var writes = new ArrayList<Callable<Void>>();
+            for (var i = 0; i < 8; i++) {
+                var offset = i * 50;
+                writes.add(() -> {
+                    priceHistoryStore.write("concurrent-coin", prices.slice(timestamps[offset], range.to()), null);
+                    return null;
+                });
+            }
+            for (var write : executor.invokeAll(writes)) {
+                write.get();
+            }
+        }
+
+        var stored = priceHistoryStore.read("concurrent-coin", range);
+        assertThat(stored.size()).isEqualTo(500);
+        assertThat(stored.priceAt(499)).isEqualTo(499.0);
+    }
+
+    private static Coin coin(String id) {
+        return Coin.builder()
+                .id(id)
+                .name(id)
+                .symbol(id)
+                .build();
+    }
+}